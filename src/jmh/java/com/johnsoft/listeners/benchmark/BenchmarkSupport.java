@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.benchmark;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import com.johnsoft.listeners.CallbackDispatcher;
+import com.johnsoft.listeners.ConsumerDispatcher;
+import com.johnsoft.listeners.Listener;
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.executors.OverflowPolicy;
+import com.johnsoft.listeners.executors.RingBufferListenerExecutor;
+import com.johnsoft.listeners.executors.SerialLaneListenerExecutor;
+import com.johnsoft.listeners.executors.TaskQueueListenerExecutor;
+import com.johnsoft.listeners.executors.ThreadPoolListenerExecutor;
+import com.johnsoft.listeners.executors.VirtualThreadListenerExecutor;
+
+/**
+ * Shared setup of the benchmarks.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+final class BenchmarkSupport {
+    static final String INLINE = "inline";
+    static final String TASK_QUEUE = "taskQueue";
+    static final String THREAD_POOL = "threadPool";
+    static final String RING_BUFFER = "ringBuffer";
+    static final String SERIAL_LANE = "serialLane";
+    static final String VIRTUAL_THREAD = "virtualThread";
+
+    private static final int RING_CAPACITY = 1 << 16;
+    private static final long BLOCK_TIMEOUT_MILLIS = 10000L;
+
+    private BenchmarkSupport() {}
+
+    /**
+     * Returns an initialized executor shared by all listeners, null for {@link #INLINE}.
+     */
+    static ListenerExecutor newSharedExecutor(String kind) {
+        final ListenerExecutor executor;
+        if (INLINE.equals(kind)) {
+            return null;
+        } else if (TASK_QUEUE.equals(kind)) {
+            executor = new TaskQueueListenerExecutor(new LinkedBlockingQueue<Runnable>(),
+                    ListenerExecutor.Mode.FOR_MULTI_SHARED, false);
+        } else if (THREAD_POOL.equals(kind)) {
+            executor = new ThreadPoolListenerExecutor(
+                    Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()),
+                    ListenerExecutor.Mode.FOR_MULTI_SHARED, false);
+        } else if (RING_BUFFER.equals(kind)) {
+            executor = new RingBufferListenerExecutor(RING_CAPACITY, RingBufferListenerExecutor.WaitStrategy.BLOCKING,
+                    ListenerExecutor.Mode.FOR_MULTI_SHARED, false, OverflowPolicy.BLOCK, BLOCK_TIMEOUT_MILLIS, null);
+        } else if (SERIAL_LANE.equals(kind)) {
+            executor = new SerialLaneListenerExecutor(
+                    Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()), false);
+        } else if (VIRTUAL_THREAD.equals(kind)) {
+            executor = new VirtualThreadListenerExecutor(ListenerExecutor.Mode.FOR_MULTI_SHARED, false);
+        } else {
+            throw new IllegalArgumentException("Unknown executor: " + kind);
+        }
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Lanes give each listener its own order, the other executors are shared as the default executor.
+     */
+    static boolean isPerListener(String kind) {
+        return SERIAL_LANE.equals(kind) || VIRTUAL_THREAD.equals(kind);
+    }
+
+    static void destroyQuietly(ListenerExecutor executor) {
+        if (executor != null && !executor.isDestroyed()) {
+            executor.destroy();
+        }
+    }
+
+    /**
+     * A dispatcher which does not print each added listener.
+     */
+    static <E> CallbackDispatcher<E> quiet(CallbackDispatcher.Builder<E> builder) {
+        return new CallbackDispatcher<E>(builder) {
+            @Override
+            protected void onListenersUpdate(int code, Listener listener) {
+            }
+        };
+    }
+
+    /**
+     * A dispatcher which does not print each added listener.
+     */
+    static <E> ConsumerDispatcher<E> quiet(ConsumerDispatcher.Builder<E> builder) {
+        return new ConsumerDispatcher<E>(builder) {
+            @Override
+            protected void onListenersUpdate(int code, Listener listener) {
+            }
+        };
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.johnsoft.listeners.Callback;
+import com.johnsoft.listeners.CallbackDispatcher;
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.ListenerExecutorFactory;
+
+/**
+ * End-to-end delivery through each {@link ListenerExecutor}: {@link #roundTrip()} measures the latency of one
+ * event to all listeners, {@link #burst()} the throughput of many events in flight.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutorBenchmark {
+    private static final int BURST = 256;
+    private static final Object EVENT = new Object();
+
+    @Param({BenchmarkSupport.INLINE, BenchmarkSupport.TASK_QUEUE, BenchmarkSupport.THREAD_POOL,
+            BenchmarkSupport.RING_BUFFER, BenchmarkSupport.SERIAL_LANE, BenchmarkSupport.VIRTUAL_THREAD})
+    public String executor;
+
+    @Param({"1", "100", "10000"})
+    public int listenerCount;
+
+    @Param({"false", "true"})
+    public boolean reusableDelivery;
+
+    private final AtomicInteger remaining = new AtomicInteger();
+    private ListenerExecutor listenerExecutor;
+    private CallbackDispatcher<Object> target;
+
+    @Setup
+    public void setUp() {
+        listenerExecutor = BenchmarkSupport.newSharedExecutor(executor);
+        final CallbackDispatcher.Builder<Object> builder = new CallbackDispatcher.Builder<Object>()
+                .setSnapshotMode(true).setReusableDelivery(reusableDelivery);
+        if (BenchmarkSupport.isPerListener(executor)) {
+            builder.setPerExecutorFactory((ListenerExecutorFactory) listenerExecutor);
+        } else {
+            builder.setDefaultExecutor(listenerExecutor);
+        }
+        target = BenchmarkSupport.quiet(builder);
+        for (int i = 0; i < listenerCount; ++i) {
+            target.addListener(new CountDownCallback());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        target.clearListeners();
+        BenchmarkSupport.destroyQuietly(listenerExecutor);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public void roundTrip() {
+        remaining.set(listenerCount);
+        target.notifyListeners(EVENT);
+        awaitDelivered();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(BURST)
+    public void burst() {
+        remaining.set(listenerCount * BURST);
+        for (int i = 0; i < BURST; ++i) {
+            target.notifyListeners(EVENT);
+        }
+        awaitDelivered();
+    }
+
+    private void awaitDelivered() {
+        while (remaining.get() > 0) {
+            Thread.yield();
+        }
+    }
+
+    private final class CountDownCallback implements Callback<Object> {
+        @Override
+        public void on(Object event) {
+            remaining.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.benchmark;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.johnsoft.listeners.AbstractDispatcher;
+import com.johnsoft.listeners.Callback;
+import com.johnsoft.listeners.CallbackDispatcher;
+import com.johnsoft.listeners.Consumer;
+import com.johnsoft.listeners.ConsumerDispatcher;
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.executors.TaskQueueListenerExecutor;
+
+/**
+ * Notify throughput and latency of both dispatchers by listener count, distinct and call thread.
+ * With a call thread each operation waits until the last listener got the event.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotifyBenchmark {
+    private static final Long[] EVENTS = new Long[1024];
+
+    static {
+        for (int i = 0; i < EVENTS.length; ++i) {
+            EVENTS[i] = (long) i;
+        }
+    }
+
+    @Param({"callback", "consumer"})
+    public String dispatcher;
+
+    @Param({"1", "10", "1000", "100000"})
+    public int listenerCount;
+
+    @Param({"true", "false"})
+    public boolean distinct;
+
+    @Param({"false", "true"})
+    public boolean callThread;
+
+    private ListenerExecutor callThreadExecutor;
+    private AbstractDispatcher target;
+    private int sequence;
+    private volatile Long lastDelivered;
+
+    @Setup
+    public void setUp() {
+        if (callThread) {
+            callThreadExecutor = new TaskQueueListenerExecutor(new LinkedBlockingQueue<Runnable>(),
+                    ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER, false);
+            callThreadExecutor.initialize();
+        }
+        if ("callback".equals(dispatcher)) {
+            target = BenchmarkSupport.quiet(new CallbackDispatcher.Builder<Long>()
+                    .setDistinct(distinct).setCallThread(callThreadExecutor));
+            for (int i = 1; i < listenerCount; ++i) {
+                target.addListener(new CountingCallback());
+            }
+            target.addListener(new LastCallback());
+        } else {
+            target = BenchmarkSupport.quiet(new ConsumerDispatcher.Builder<Long>()
+                    .setDistinct(distinct).setCallThread(callThreadExecutor));
+            for (int i = 1; i < listenerCount; ++i) {
+                target.addListener(new CountingConsumer());
+            }
+            target.addListener(new LastConsumer());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        target.clearListeners();
+        BenchmarkSupport.destroyQuietly(callThreadExecutor);
+    }
+
+    @Benchmark
+    public void notifyListeners() {
+        final Long event = EVENTS[sequence++ & (EVENTS.length - 1)];
+        target.notifyListeners(event);
+        if (callThread) {
+            while (lastDelivered != event) {
+                Thread.yield();
+            }
+        }
+    }
+
+    private static final class CountingCallback implements Callback<Long> {
+        long count;
+
+        @Override
+        public void on(Long event) {
+            ++count;
+        }
+    }
+
+    private static final class CountingConsumer implements Consumer<Long> {
+        long count;
+
+        @Override
+        public boolean on(Long event) {
+            ++count;
+            return false;
+        }
+    }
+
+    private final class LastCallback implements Callback<Long> {
+        @Override
+        public void on(Long event) {
+            lastDelivered = event;
+        }
+    }
+
+    private final class LastConsumer implements Consumer<Long> {
+        @Override
+        public boolean on(Long event) {
+            lastDelivered = event;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.johnsoft.listeners.Callback;
+import com.johnsoft.listeners.CallbackDispatcher;
+
+/**
+ * Notify threads racing one thread which adds and removes a listener, for each registry kind.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistrationContentionBenchmark {
+    private static final Object EVENT = new Object();
+
+    @Param({"synchronized", "snapshot", "lockFree"})
+    public String registry;
+
+    @Param({"10", "1000"})
+    public int listenerCount;
+
+    private CallbackDispatcher<Object> target;
+    private Callback<Object> churning;
+
+    @Setup
+    public void setUp() {
+        target = BenchmarkSupport.quiet(new CallbackDispatcher.Builder<Object>()
+                .setSnapshotMode("snapshot".equals(registry))
+                .setLockFreeRegistry("lockFree".equals(registry)));
+        for (int i = 0; i < listenerCount; ++i) {
+            target.addListener(new CountingCallback());
+        }
+        churning = new CountingCallback();
+    }
+
+    @TearDown
+    public void tearDown() {
+        target.clearListeners();
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(3)
+    public void notifyListeners() {
+        target.notifyListeners(EVENT);
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(1)
+    public boolean addRemove() {
+        target.addListener(churning);
+        return target.removeListener(churning);
+    }
+
+    private static final class CountingCallback implements Callback<Object> {
+        long count;
+
+        @Override
+        public void on(Object event) {
+            ++count;
+        }
+    }
+}
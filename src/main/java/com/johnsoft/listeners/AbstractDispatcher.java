@@ -16,9 +16,23 @@
  */
 package com.johnsoft.listeners;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.LinkedHashSet;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.johnsoft.listeners.metrics.ListenerMetrics;
 
 /**
  * @author John Kenrinus Lee
@@ -29,21 +43,101 @@ public abstract class AbstractDispatcher implements ListenerDispatcher {
     protected static final int CODE_LISTENERS_CLEARED = 0;
     protected static final int CODE_LISTENER_REMOVED = -1;
 
-    private final byte[] listenersLock = new byte[0];
-    private final Collection<Listener> listeners;
+    private static final int PURGE_BATCH_SIZE = 1024;
+
+    private static final ListenerRegistry.Observer IGNORING_OBSERVER = new ListenerRegistry.Observer() {
+        @Override
+        public void onUpdate(int code, Listener listener) {
+        }
+    };
+
+    private final ListenerRegistry registry;
+    private final ListenerRegistry.Observer registryObserver;
     private final boolean distinct;
     private final boolean visitSameWithNotify;
+    private final boolean snapshotMode;
+    private final boolean lockFreeRegistry;
+    private final boolean reusableDelivery;
+    private final boolean metricsEnabled;
+    private final boolean weakListeners;
+    private final int ingestionStripes;
+    private final boolean typeRouting;
+    // resolved listeners of each event class, replaced when the registry version changes
+    private volatile TypeRoutes typeRoutes;
+    // collected listeners of weak registrations, null if not weak
+    private final ReferenceQueue<Listener> expiredListeners;
     private final ListenerExecutor callThread;
+    private final DeliveryTask notifyTask;
+    // not null if producers queue for the call thread through stripes
+    private final StripedNotifyTask stripedNotifyTask;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    // shared with the registrations, which must not reference this dispatcher
+    private final AtomicLong coveredEventCount = new AtomicLong();
+    // must not reference this dispatcher, it is run after the dispatcher was collected
+    private final OwnedResources ownedResources;
+    private final DispatcherCleaner.Cleanup cleanup;
 
     protected AbstractDispatcher(Builder builder) {
         distinct = builder.distinct;
         visitSameWithNotify = builder.visitSameWithNotify;
+        snapshotMode = builder.snapshotMode;
+        lockFreeRegistry = builder.lockFreeRegistry;
+        reusableDelivery = builder.reusableDelivery;
+        metricsEnabled = builder.metricsEnabled;
+        weakListeners = builder.weakListeners;
+        ingestionStripes = builder.ingestionStripes;
+        typeRouting = builder.typeRouting;
+        expiredListeners = weakListeners ? new ReferenceQueue<Listener>() : null;
         callThread = builder.callThread;
-        if (distinct) {
-            listeners = new LinkedHashSet<>();
+        if (lockFreeRegistry) {
+            registry = new CopyOnWriteListenerRegistry(distinct);
         } else {
-            listeners = new LinkedList<>();
+            registry = new SynchronizedListenerRegistry(distinct, snapshotMode);
         }
+        registryObserver = new ListenerRegistry.Observer() {
+            @Override
+            public void onUpdate(int code, Listener listener) {
+                deliverListenersUpdate(code, listener);
+            }
+        };
+        if (ingestionStripes > 0 && callThread != null) {
+            stripedNotifyTask = new StripedNotifyTask(ingestionStripes) {
+                @Override
+                protected void deliver(Object event) {
+                    deliverQueuedEvent(event);
+                }
+
+                @Override
+                protected void onDropped(Object event) {
+                    dropQueuedEvent(event);
+                }
+            };
+        } else {
+            stripedNotifyTask = null;
+        }
+        if (reusableDelivery && callThread != null && stripedNotifyTask == null) {
+            notifyTask = new DeliveryTask() {
+                @Override
+                protected void deliver(Object event, long enqueueNanos) {
+                    deliverQueuedEvent(event);
+                }
+
+                @Override
+                protected void onDropped(Object event) {
+                    dropQueuedEvent(event);
+                }
+
+                @Override
+                protected void onCovered(int count) {
+                    onEventsCovered(count);
+                }
+            };
+        } else {
+            notifyTask = null;
+        }
+        ownedResources = new OwnedResources(registry);
+        registerOwnedExecutor(callThread);
+        cleanup = DispatcherCleaner.register(this, ownedResources);
     }
 
     public abstract Builder newBuilder();
@@ -52,47 +146,232 @@ public abstract class AbstractDispatcher implements ListenerDispatcher {
         return callThread;
     }
 
+    public final boolean isSnapshotMode() {
+        return snapshotMode || lockFreeRegistry;
+    }
+
+    public final boolean isLockFreeRegistry() {
+        return lockFreeRegistry;
+    }
+
+    public final boolean isReusableDelivery() {
+        return reusableDelivery;
+    }
+
+    public final boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public final boolean isWeakListeners() {
+        return weakListeners;
+    }
+
+    public final int getIngestionStripes() {
+        return ingestionStripes;
+    }
+
+    public final boolean isTypeRouting() {
+        return typeRouting;
+    }
+
+    /**
+     * Returns the metrics of the current listeners in notify order, empty if the metrics are not enabled.
+     */
+    public final List<ListenerMetrics.Snapshot> getListenerMetrics() {
+        final Registration[] registrations = cloneListeners();
+        final List<ListenerMetrics.Snapshot> snapshots = new ArrayList<>(registrations.length);
+        for (int i = 0; i < registrations.length; ++i) {
+            final ListenerMetrics metrics = registrations[i].getMetrics();
+            final Listener listener = registrations[i].getListener();
+            if (metrics != null && listener != null) {
+                snapshots.add(metrics.snapshot(listener));
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Returns how many events were replaced by a newer one before their listener got them, because the executor
+     * of the listener, or the call thread, is in cover-unexecuted mode. Each listener keeps at most one event
+     * waiting for such an executor.
+     */
+    public final long getCoveredEventCount() {
+        return coveredEventCount.get();
+    }
+
+    /**
+     * Counts events which a newer one replaced in the call thread before any listener got them.
+     */
+    protected final void onEventsCovered(int count) {
+        coveredEventCount.addAndGet(count);
+    }
+
+    /**
+     * Returns a number which increases each time the listeners are added, removed or cleared.
+     */
+    public final long getListenersVersion() {
+        return registry.version();
+    }
+
     @Override
     public final boolean addListener(Listener listener) {
-        if (listener != null) {
-            synchronized(listenersLock) {
-                final boolean result = listeners.add(listener);
-                deliverListenersUpdate(CODE_LISTENER_ADDED, listener);
-                return result;
+        purgeExpiredListeners();
+        if (listener != null && !closed.get() && !isDuplicate(listener)) {
+            return addRegistration(newRegistration(listener));
+        }
+        return false;
+    }
+
+    /**
+     * Adds the listener for events of the given type, its subclasses and implementations, type routing must be
+     * enabled by the builder. Subclasses expose this with the type of their listeners.
+     */
+    protected final boolean addListenerForType(Class<?> eventType, Listener listener) {
+        if (!typeRouting) {
+            throw new IllegalStateException("Type routing is not enabled");
+        }
+        if (eventType == null) {
+            throw new NullPointerException("eventType");
+        }
+        purgeExpiredListeners();
+        if (listener != null && !closed.get() && !isDuplicate(listener)) {
+            return addRegistration(newRegistration(listener, eventType));
+        }
+        return false;
+    }
+
+    /**
+     * True if the dispatcher is distinct and already holds the listener, checked before a registration is created
+     * so no executor is bound for a listener that would be rejected. The registry still decides under a race.
+     */
+    protected final boolean isDuplicate(Listener listener) {
+        return distinct && registry.contains(listener);
+    }
+
+    /**
+     * Adds a registration created by the subclass, as {@link #addListener(Listener)} does with the one from
+     * {@link #newRegistration(Listener)}. A registration rejected as duplicate is released.
+     */
+    protected final boolean addRegistration(Registration registration) {
+        if (registry.add(registration, registryObserver)) {
+            if (closed.get()) { // raced with close
+                deliverRegistrationsReleased(registry.removeRegistrations(new Registration[] { registration },
+                        registryObserver));
+                return false;
             }
+            return true;
         }
+        deliverRegistrationsReleased(new Registration[] { registration });
         return false;
     }
 
     @Override
     public final boolean removeListener(Listener listener) {
+        purgeExpiredListeners();
         if (listener != null) {
-            synchronized(listenersLock) {
-                final boolean result = listeners.remove(listener);
-                deliverListenersUpdate(CODE_LISTENER_REMOVED, listener);
-                return result;
+            final Registration registration = registry.remove(listener, registryObserver);
+            if (registration != null) {
+                deliverRegistrationsReleased(new Registration[] { registration });
+                return true;
             }
         }
         return false;
     }
 
+    /**
+     * All registrations are created by {@link #newRegistrations(Listener[])} before the listeners are updated once,
+     * the ones rejected as duplicates are released together. Null listeners and, if distinct, repeated ones and
+     * the ones already added are skipped, so no registration is created for them.
+     */
+    @Override
+    public final int addListeners(Collection<? extends Listener> listeners) {
+        purgeExpiredListeners();
+        final Listener[] listenerArray = distinct ? distinctNewListeners(listeners) : nonNullListeners(listeners);
+        if (listenerArray.length == 0 || closed.get()) {
+            return 0;
+        }
+        final Registration[] registrations = newRegistrations(listenerArray);
+        final Registration[] added = registry.addAll(registrations, registryObserver);
+        if (added.length < registrations.length) {
+            final Set<Registration> addedSet = Collections.newSetFromMap(new IdentityHashMap<Registration, Boolean>());
+            Collections.addAll(addedSet, added);
+            final List<Registration> rejected = new ArrayList<>(registrations.length - added.length);
+            for (int i = 0; i < registrations.length; ++i) {
+                if (!addedSet.contains(registrations[i])) {
+                    rejected.add(registrations[i]);
+                }
+            }
+            deliverRegistrationsReleased(rejected.toArray(ListenerRegistry.NO_REGISTRATIONS));
+        }
+        if (added.length > 0 && closed.get()) { // raced with close
+            deliverRegistrationsReleased(registry.removeRegistrations(added, registryObserver));
+            return 0;
+        }
+        return added.length;
+    }
+
+    /**
+     * The removed registrations are released together after the listeners are updated once.
+     */
+    @Override
+    public final int removeListeners(Collection<? extends Listener> listeners) {
+        purgeExpiredListeners();
+        final Listener[] listenerArray = nonNullListeners(listeners);
+        if (listenerArray.length == 0) {
+            return 0;
+        }
+        final Registration[] removed = registry.removeAll(listenerArray, registryObserver);
+        deliverRegistrationsReleased(removed);
+        return removed.length;
+    }
+
+    private static Listener[] nonNullListeners(Collection<? extends Listener> listeners) {
+        if (listeners == null) {
+            return new Listener[0];
+        }
+        final List<Listener> result = new ArrayList<>(listeners.size());
+        for (Listener listener : listeners) {
+            if (listener != null) {
+                result.add(listener);
+            }
+        }
+        return result.toArray(new Listener[result.size()]);
+    }
+
+    // tested against one hash set of the current listeners, the registry still rejects the ones racing in
+    private Listener[] distinctNewListeners(Collection<? extends Listener> listeners) {
+        if (listeners == null) {
+            return new Listener[0];
+        }
+        final Registration[] current = registry.snapshot();
+        final Set<Listener> seen = new HashSet<>((current.length + listeners.size()) * 2);
+        for (int i = 0; i < current.length; ++i) {
+            final Listener listener = current[i].getListener();
+            if (listener != null) {
+                seen.add(listener);
+            }
+        }
+        final List<Listener> result = new ArrayList<>(listeners.size());
+        for (Listener listener : listeners) {
+            if (listener != null && seen.add(listener)) {
+                result.add(listener);
+            }
+        }
+        return result.toArray(new Listener[result.size()]);
+    }
+
     @Override
     public final boolean containsListener(Listener listener) {
         if (listener == null) {
             return false;
         }
-        synchronized(listenersLock) {
-            return listeners.contains(listener);
-        }
+        return registry.contains(listener);
     }
 
     @Override
     public final boolean clearListeners() {
         try {
-            synchronized(listenersLock) {
-                listeners.clear();
-                deliverListenersUpdate(CODE_LISTENERS_CLEARED, null);
-            }
+            deliverRegistrationsReleased(registry.clear(registryObserver));
             return true;
         } catch (Throwable e) {
             e.printStackTrace();
@@ -102,18 +381,112 @@ public abstract class AbstractDispatcher implements ListenerDispatcher {
 
     @Override
     public final void notifyListeners(final Object event) {
+        if (closed.get()) {
+            deliverEventDropped(event);
+            return;
+        }
+        purgeExpiredListeners();
         if (callThread == null) {
-            doNotifyListeners(cloneListeners(), event);
+            notifyNow(event);
+        } else if (stripedNotifyTask != null) {
+            stripedNotifyTask.dispatch(callThread, event);
+        } else if (notifyTask != null) {
+            notifyTask.dispatch(callThread, event);
         } else {
-            callThread.execute(new Runnable() {
-                @Override
-                public void run() {
-                    doNotifyListeners(cloneListeners(), event);
-                }
-            });
+            final NotifyRunnable task = new NotifyRunnable(event, null);
+            if (callThread.execute(task) == null) {
+                task.discard();
+            }
         }
     }
 
+    /**
+     * Takes one snapshot for the whole batch and hands it to the call thread once. The array is copied,
+     * so the caller may reuse it.
+     */
+    @Override
+    public final void notifyListenersInBatch(Object[] events) {
+        if (events == null || events.length == 0) {
+            return;
+        }
+        if (closed.get()) {
+            deliverEventsDropped(events);
+            return;
+        }
+        purgeExpiredListeners();
+        final Object[] batch = events.clone();
+        if (callThread == null) {
+            notifyNowInBatch(batch);
+        } else if (stripedNotifyTask != null) {
+            stripedNotifyTask.dispatch(callThread, new EventBatch(batch));
+        } else if (notifyTask != null) {
+            notifyTask.dispatch(callThread, new EventBatch(batch));
+        } else {
+            final NotifyRunnable task = new NotifyRunnable(null, batch);
+            if (callThread.execute(task) == null) {
+                task.discard();
+            }
+        }
+    }
+
+    /**
+     * Releases the listeners as {@link #clearListeners()} does, then destroys the executors registered by
+     * {@link #registerOwnedExecutor(ListenerExecutor)}. If a dispatcher is garbage collected without being closed,
+     * the same is done on a cleaner thread, except that {@link #onRegistrationsReleased(Registration[])} can not
+     * be called any more, so each left registration is told by {@link Registration#onOrphaned()} instead.
+     */
+    @Override
+    public final void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            deliverRegistrationsReleased(registry.clear(registryObserver));
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+        cleanup.clean();
+    }
+
+    public final boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Removes the weak registrations whose listeners were garbage collected, and returns how many.
+     * Also called by add, remove and notify, where it costs one queue poll when nothing expired.
+     */
+    public final int purgeExpiredListeners() {
+        if (expiredListeners == null) {
+            return 0;
+        }
+        Reference<? extends Listener> reference = expiredListeners.poll();
+        if (reference == null) {
+            return 0;
+        }
+        int purged = 0;
+        final List<Registration> expired = new ArrayList<>();
+        while (reference != null) {
+            expired.add(((Registration.ListenerReference) reference).registration);
+            if (expired.size() == PURGE_BATCH_SIZE) {
+                purged += purgeRegistrations(expired);
+                expired.clear();
+            }
+            reference = expiredListeners.poll();
+        }
+        return purged + purgeRegistrations(expired);
+    }
+
+    private int purgeRegistrations(List<Registration> expired) {
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        final Registration[] removed = registry.removeRegistrations(expired.toArray(ListenerRegistry.NO_REGISTRATIONS),
+                registryObserver);
+        deliverRegistrationsReleased(removed);
+        return removed.length;
+    }
+
     @Override
     public final void visitListeners(final ListenerVisitor visitor) {
         if (visitor != null) {
@@ -130,8 +503,111 @@ public abstract class AbstractDispatcher implements ListenerDispatcher {
         }
     }
 
-    protected abstract void doNotifyListeners(Listener[] listeners, Object event);
+    /**
+     * In snapshot mode the given array is shared by all notifications of the same version, never modify it.
+     * By default the listeners of the registrations are passed to {@link #doNotifyListeners(Listener[], Object)},
+     * subclasses using what they bound to the registrations override this one instead.
+     */
+    protected void doNotifyListeners(Registration[] registrations, Object event) {
+        final Listener[] listeners = new Listener[registrations.length];
+        int count = 0;
+        for (int i = 0; i < registrations.length; ++i) {
+            final Listener listener = registrations[i].getListener();
+            if (listener != null) { // not a collected weak registration
+                listeners[count++] = listener;
+            }
+        }
+        doNotifyListeners(count == listeners.length ? listeners : Arrays.copyOf(listeners, count), event);
+    }
+
+    /**
+     * The hook of subclasses which only need the listeners, called with a new array on each notify. One of the two
+     * doNotifyListeners methods must be overridden.
+     */
+    protected void doNotifyListeners(Listener[] listeners, Object event) {
+        throw new UnsupportedOperationException("doNotifyListeners is not implemented");
+    }
+
+    /**
+     * Delivers the events in order, by default one {@link #doNotifyListeners(Registration[], Object)} per event.
+     */
+    protected void doNotifyListenersInBatch(Registration[] registrations, Object[] events) {
+        for (int i = 0; i < events.length; ++i) {
+            doNotifyListeners(registrations, events[i]);
+        }
+    }
+
+    /**
+     * Creates the record kept for the listener, subclasses bind their per-listener state to it.
+     * Called outside any lock, before the registration becomes visible to notify.
+     */
+    protected Registration newRegistration(Listener listener) {
+        return new Registration(this, listener);
+    }
+
+    /**
+     * Creates the record kept for a listener of the given event type, subclasses overriding
+     * {@link #newRegistration(Listener)} bind the same state here.
+     */
+    protected Registration newRegistration(Listener listener, Class<?> eventType) {
+        return new Registration(this, listener, eventType);
+    }
+
+    /**
+     * Creates the registrations for a bulk add, by default one {@link #newRegistration(Listener)} per listener.
+     * Subclasses may override it to set up what they bind as one batch. If it throws, nothing is added.
+     */
+    protected Registration[] newRegistrations(Listener[] listeners) {
+        final Registration[] registrations = new Registration[listeners.length];
+        int created = 0;
+        try {
+            for (; created < listeners.length; ++created) {
+                registrations[created] = newRegistration(listeners[created]);
+            }
+        } finally {
+            if (created < listeners.length) {
+                deliverRegistrationsReleased(Arrays.copyOf(registrations, created));
+            }
+        }
+        return registrations;
+    }
+
+    /**
+     * Called outside any lock with the registrations which were removed, cleared, or rejected as duplicates,
+     * subclasses release what they bound in {@link #newRegistration(Listener)} here.
+     */
+    protected void onRegistrationsReleased(Registration[] registrations) {
+    }
+
+    /**
+     * Called for an event which will never reach {@link #doNotifyListeners(Registration[], Object)}, because the
+     * dispatcher is closed or the call thread dropped it.
+     */
+    protected void onEventDropped(Object event) {
+    }
 
+    /**
+     * Tells the class an event is routed by with type routing, null events only reach listeners added without type.
+     */
+    protected Class<?> eventTypeOf(Object event) {
+        return event != null ? event.getClass() : null;
+    }
+
+    /**
+     * Destroys the executor on close if its mode is {@link ListenerExecutor.Mode#FOR_SINGLE_DISPATCHER},
+     * executors of the other modes belong to their listeners or are shared, and are left alone.
+     */
+    protected final void registerOwnedExecutor(ListenerExecutor executor) {
+        if (executor != null && executor.getMode() == ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER) {
+            ownedResources.add(executor);
+        }
+    }
+
+    /**
+     * Called only when the listeners really changed. With the lock-free registry it is called outside any lock,
+     * so it may race with other updates of the same listener. The listener is null for cleared listeners and for
+     * purged weak registrations.
+     */
     protected abstract void onListenersUpdate(int code, Listener listener);
 
     private final void deliverListenersUpdate(int code, Listener listener) {
@@ -142,50 +618,384 @@ public abstract class AbstractDispatcher implements ListenerDispatcher {
         }
     }
 
-    private final void doVisitListeners(ListenerVisitor visitor) {
-        final Listener[] listenerArray = cloneListeners();
-        for (int i = 0; i < listenerArray.length; ++i) {
-            visitor.visit(listenerArray[i]);
+    private final void deliverRegistrationsReleased(Registration[] registrations) {
+        if (registrations.length == 0) {
+            return;
+        }
+        try {
+            onRegistrationsReleased(registrations);
+        } catch (Throwable e) {
+            e.printStackTrace();
         }
     }
 
-    private final Listener[] cloneListeners() {
-        // TODO should cache the listener array with version control on concurrent environment?
-        Listener[] listenerArray = new Listener[0];
-        synchronized(listenersLock) {
-            listenerArray = listeners.toArray(listenerArray);
+    // an event or batch queued for the call thread
+    private final void deliverQueuedEvent(Object event) {
+        if (event instanceof EventBatch) {
+            notifyNowInBatch(((EventBatch) event).events);
+        } else {
+            notifyNow(event);
         }
-        return listenerArray;
     }
 
-    // If the user forgets destroy listener executors, try to make a last effort here.
-    @Override
-    protected void finalize() throws Throwable {
-        super.finalize();
-        try {
-            if (callThread != null && callThread.getMode() == ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER
-                    && !callThread.isDestroyed()) {
-                callThread.destroy();
+    private final void notifyNow(Object event) {
+        doNotifyListeners(typeRouting ? routesOf(event) : cloneListeners(), event);
+    }
+
+    // with type routing each run of events of one class is a batch
+    private final void notifyNowInBatch(Object[] events) {
+        if (!typeRouting) {
+            doNotifyListenersInBatch(cloneListeners(), events);
+            return;
+        }
+        int start = 0;
+        while (start < events.length) {
+            final Class<?> type = eventTypeOf(events[start]);
+            int end = start + 1;
+            while (end < events.length && eventTypeOf(events[end]) == type) {
+                ++end;
             }
+            final Registration[] registrations = currentTypeRoutes().resolve(type);
+            if (start == 0 && end == events.length) {
+                doNotifyListenersInBatch(registrations, events);
+            } else {
+                doNotifyListenersInBatch(registrations, Arrays.copyOfRange(events, start, end));
+            }
+            start = end;
+        }
+    }
+
+    private Registration[] routesOf(Object event) {
+        return currentTypeRoutes().resolve(eventTypeOf(event));
+    }
+
+    private TypeRoutes currentTypeRoutes() {
+        TypeRoutes routes = typeRoutes;
+        if (routes == null || routes.version != registry.version()) {
+            routes = new TypeRoutes(registry.versionedSnapshot());
+            typeRoutes = routes;
+        }
+        return routes;
+    }
+
+    private final void dropQueuedEvent(Object event) {
+        if (event instanceof EventBatch) {
+            deliverEventsDropped(((EventBatch) event).events);
+        } else {
+            deliverEventDropped(event);
+        }
+    }
+
+    private final void deliverEventDropped(Object event) {
+        try {
+            onEventDropped(event);
         } catch (Throwable e) {
-            // ignored
+            e.printStackTrace();
+        }
+    }
+
+    private final void deliverEventsDropped(Object[] events) {
+        for (int i = 0; i < events.length; ++i) {
+            deliverEventDropped(events[i]);
+        }
+    }
+
+    private final void doVisitListeners(ListenerVisitor visitor) {
+        final Registration[] registrations = cloneListeners();
+        for (int i = 0; i < registrations.length; ++i) {
+            final Listener listener = registrations[i].getListener();
+            if (listener != null) {
+                visitor.visit(listener);
+            }
+        }
+    }
+
+    /**
+     * Returns the current registrations, in snapshot mode the array is shared, never modify it.
+     */
+    protected final Registration[] cloneListeners() {
+        return registry.snapshot();
+    }
+
+    private static final class OwnedResources implements Runnable {
+        private final ListenerRegistry registry;
+        private final List<ListenerExecutor> executors = new ArrayList<>();
+
+        OwnedResources(ListenerRegistry registry) {
+            this.registry = registry;
+        }
+
+        synchronized void add(ListenerExecutor executor) {
+            executors.add(executor);
+        }
+
+        @Override
+        public synchronized void run() {
+            final Registration[] orphans = registry.clear(IGNORING_OBSERVER);
+            for (int i = 0; i < orphans.length; ++i) {
+                try {
+                    orphans[i].onOrphaned();
+                } catch (Throwable e) {
+                    e.printStackTrace();
+                }
+            }
+            for (int i = 0; i < executors.size(); ++i) {
+                final ListenerExecutor executor = executors.get(i);
+                try {
+                    if (!executor.isNotInitialized() && !executor.isDestroyed()) {
+                        executor.destroy();
+                    }
+                } catch (Throwable e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Notifies on the call thread without reusable delivery, dropped events are reported if it is discarded.
+     */
+    private final class NotifyRunnable implements Runnable, ListenerExecutor.Discardable {
+        private final Object event;
+        // not null for a batch
+        private final Object[] events;
+
+        NotifyRunnable(Object event, Object[] events) {
+            this.event = event;
+            this.events = events;
+        }
+
+        @Override
+        public void run() {
+            if (events == null) {
+                notifyNow(event);
+            } else {
+                notifyNowInBatch(events);
+            }
+        }
+
+        @Override
+        public void discard() {
+            if (events == null) {
+                deliverEventDropped(event);
+            } else {
+                deliverEventsDropped(events);
+            }
+        }
+    }
+
+    /**
+     * The listeners of one registry version, resolved once per event class in notify order.
+     */
+    private static final class TypeRoutes {
+        final long version;
+        final Registration[] registrations;
+        // true if some listener was added for a type
+        final boolean typed;
+        final ConcurrentHashMap<Class<?>, Registration[]> resolved = new ConcurrentHashMap<>();
+        // listeners added without type, which get every event
+        private volatile Registration[] untyped;
+
+        TypeRoutes(ListenerRegistry.Snapshot snapshot) {
+            version = snapshot.version;
+            registrations = snapshot.registrations;
+            boolean typed = false;
+            for (int i = 0; i < registrations.length && !typed; ++i) {
+                typed = registrations[i].eventType != null;
+            }
+            this.typed = typed;
+        }
+
+        Registration[] resolve(Class<?> type) {
+            if (!typed) {
+                return registrations;
+            }
+            if (type == null) {
+                if (untyped == null) {
+                    untyped = collect(null);
+                }
+                return untyped;
+            }
+            Registration[] routes = resolved.get(type);
+            if (routes == null) {
+                routes = collect(type);
+                final Registration[] raced = resolved.putIfAbsent(type, routes);
+                if (raced != null) {
+                    routes = raced;
+                }
+            }
+            return routes;
+        }
+
+        private Registration[] collect(Class<?> type) {
+            final List<Registration> routes = new ArrayList<>(registrations.length);
+            for (int i = 0; i < registrations.length; ++i) {
+                final Class<?> eventType = registrations[i].eventType;
+                if (eventType == null || (type != null && eventType.isAssignableFrom(type))) {
+                    routes.add(registrations[i]);
+                }
+            }
+            if (routes.size() == registrations.length) {
+                return registrations;
+            }
+            return routes.toArray(ListenerRegistry.NO_REGISTRATIONS);
+        }
+    }
+
+    private static final class EventBatch {
+        final Object[] events;
+
+        EventBatch(Object[] events) {
+            this.events = events;
+        }
+    }
+
+    /**
+     * A registered listener together with what the dispatcher bound to it. Two registrations are equal when
+     * their listeners are equal. A weak registration does not keep its listener reachable.
+     */
+    protected static class Registration {
+        // null if weak
+        private final Listener listener;
+        // null if strong
+        private final ListenerReference reference;
+        private final int hash;
+        private final ListenerMetrics metrics;
+        // the covered event count of the dispatcher, null if not created for a dispatcher
+        private final AtomicLong coveredEventCount;
+        // null if the listener gets events of any type
+        private final Class<?> eventType;
+
+        /**
+         * A strong registration without metrics.
+         */
+        protected Registration(Listener listener) {
+            this.listener = Objects.requireNonNull(listener);
+            this.reference = null;
+            this.hash = listener.hashCode();
+            this.metrics = null;
+            this.coveredEventCount = null;
+            this.eventType = null;
+        }
+
+        /**
+         * A registration as configured for the dispatcher, weak or strong, with or without metrics.
+         */
+        protected Registration(AbstractDispatcher dispatcher, Listener listener) {
+            this(dispatcher, listener, null);
+        }
+
+        /**
+         * A registration as configured for the dispatcher, which with type routing only gets events of the given
+         * type, its subclasses and implementations, or any event if the type is null.
+         */
+        protected Registration(AbstractDispatcher dispatcher, Listener listener, Class<?> eventType) {
+            Objects.requireNonNull(listener);
+            if (dispatcher.expiredListeners != null) {
+                this.listener = null;
+                this.reference = new ListenerReference(listener, dispatcher.expiredListeners, this);
+            } else {
+                this.listener = listener;
+                this.reference = null;
+            }
+            this.hash = listener.hashCode();
+            this.metrics = dispatcher.metricsEnabled ? new ListenerMetrics() : null;
+            this.coveredEventCount = dispatcher.coveredEventCount;
+            this.eventType = eventType;
+        }
+
+        /**
+         * Returns null if the registration is weak and the listener was garbage collected.
+         */
+        public final Listener getListener() {
+            return reference != null ? reference.get() : listener;
+        }
+
+        public final ListenerMetrics getMetrics() {
+            return metrics;
+        }
+
+        public final Class<?> getEventType() {
+            return eventType;
+        }
+
+        /**
+         * Counts events of this listener which a newer one replaced in cover-unexecuted mode,
+         * see {@link AbstractDispatcher#getCoveredEventCount()}.
+         */
+        protected final void onEventsCovered(int count) {
+            if (coveredEventCount != null) {
+                coveredEventCount.addAndGet(count);
+            }
+        }
+
+        /**
+         * Called on the cleaner thread for each registration left when its dispatcher was garbage collected
+         * without being closed, releases what the dispatcher bound to it without the dispatcher.
+         */
+        protected void onOrphaned() {
+        }
+
+        public final boolean matches(Listener listener) {
+            final Listener own = getListener();
+            return own != null && own.equals(listener);
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            return this == o || (o instanceof Registration && matches(((Registration) o).getListener()));
+        }
+
+        @Override
+        public final int hashCode() {
+            return hash;
+        }
+
+        private static final class ListenerReference extends WeakReference<Listener> {
+            final Registration registration;
+
+            ListenerReference(Listener listener, ReferenceQueue<Listener> queue, Registration registration) {
+                super(listener, queue);
+                this.registration = registration;
+            }
         }
     }
 
     public static abstract class Builder {
         private boolean distinct;
         private boolean visitSameWithNotify;
+        private boolean snapshotMode;
+        private boolean lockFreeRegistry;
+        private boolean reusableDelivery;
+        private boolean metricsEnabled;
+        private boolean weakListeners;
+        private int ingestionStripes;
+        private boolean typeRouting;
         private ListenerExecutor callThread;
 
         public Builder() {
             distinct = true;
             visitSameWithNotify = false;
+            snapshotMode = false;
+            lockFreeRegistry = false;
+            reusableDelivery = false;
+            metricsEnabled = false;
+            weakListeners = false;
+            ingestionStripes = 0;
+            typeRouting = false;
             callThread = null;
         }
 
         protected Builder(AbstractDispatcher dispatcher) {
             distinct = dispatcher.distinct;
             visitSameWithNotify = dispatcher.visitSameWithNotify;
+            snapshotMode = dispatcher.snapshotMode;
+            lockFreeRegistry = dispatcher.lockFreeRegistry;
+            reusableDelivery = dispatcher.reusableDelivery;
+            metricsEnabled = dispatcher.metricsEnabled;
+            weakListeners = dispatcher.weakListeners;
+            ingestionStripes = dispatcher.ingestionStripes;
+            typeRouting = dispatcher.typeRouting;
             callThread = dispatcher.callThread;
         }
 
@@ -216,6 +1026,101 @@ public abstract class AbstractDispatcher implements ListenerDispatcher {
             return this;
         }
 
+        public boolean isSnapshotMode() {
+            return snapshotMode;
+        }
+
+        /**
+         * If true, add/remove/clear publish an immutable listener array, and notify reads it without lock or copy.
+         */
+        public Builder setSnapshotMode(boolean snapshotMode) {
+            this.snapshotMode = snapshotMode;
+            return this;
+        }
+
+        public boolean isLockFreeRegistry() {
+            return lockFreeRegistry;
+        }
+
+        /**
+         * If true, listeners are kept in an immutable array replaced by compare-and-swap instead of a monitor,
+         * which also implies the snapshot mode.
+         */
+        public Builder setLockFreeRegistry(boolean lockFreeRegistry) {
+            this.lockFreeRegistry = lockFreeRegistry;
+            return this;
+        }
+
+        public boolean isReusableDelivery() {
+            return reusableDelivery;
+        }
+
+        /**
+         * If true, events handed to executors are queued in reusable tasks bound to the dispatcher and to each
+         * registration instead of a new Runnable per event, so deliveries to the same listener run one by one.
+         * Together with the snapshot mode the steady-state notify path allocates nothing.
+         */
+        public Builder setReusableDelivery(boolean reusableDelivery) {
+            this.reusableDelivery = reusableDelivery;
+            return this;
+        }
+
+        public boolean isMetricsEnabled() {
+            return metricsEnabled;
+        }
+
+        /**
+         * If true, each listener counts its invocations and errors and records its wait and run times,
+         * see {@link AbstractDispatcher#getListenerMetrics()}. If false, the cost is one null check per delivery.
+         */
+        public Builder setMetricsEnabled(boolean metricsEnabled) {
+            this.metricsEnabled = metricsEnabled;
+            return this;
+        }
+
+        public boolean isWeakListeners() {
+            return weakListeners;
+        }
+
+        /**
+         * If true, the dispatcher does not keep its listeners reachable. Collected listeners are purged in batches
+         * on the next add, remove or notify, and what was bound to them is released as if they were removed.
+         * Whoever registers a listener must keep it reachable for as long as it should be notified.
+         */
+        public Builder setWeakListeners(boolean weakListeners) {
+            this.weakListeners = weakListeners;
+            return this;
+        }
+
+        public int getIngestionStripes() {
+            return ingestionStripes;
+        }
+
+        /**
+         * If positive and a call thread is set, each producer thread queues its notifications in one of this many
+         * staging stripes, rounded up to a power of two, which the call thread drains. Producers then rarely
+         * contend on the call thread queue. Notifications of one producer thread stay in order, notifications of
+         * different producers are not ordered. Takes precedence over reusable delivery for the call thread.
+         */
+        public Builder setIngestionStripes(int ingestionStripes) {
+            this.ingestionStripes = ingestionStripes;
+            return this;
+        }
+
+        public boolean isTypeRouting() {
+            return typeRouting;
+        }
+
+        /**
+         * If true, listeners may be added for an event type and only get events of that type, its subclasses and
+         * implementations. The listeners of each event class are resolved once per registry change, so notify
+         * costs one map lookup instead of a walk over the class hierarchy.
+         */
+        public Builder setTypeRouting(boolean typeRouting) {
+            this.typeRouting = typeRouting;
+            return this;
+        }
+
         public abstract AbstractDispatcher build();
     }
 }
@@ -16,28 +16,49 @@
  */
 package com.johnsoft.listeners;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.johnsoft.listeners.metrics.ListenerMetrics;
 
 /**
  * @author John Kenrinus Lee
  * @version 2016-07-15
  */
 public class CallbackDispatcher<E> extends AbstractDispatcher {
+    // never equal to an attribute value, returned if the attribute of an event can not be told
+    private static final Object UNKNOWN_ATTRIBUTE = new Object();
+
     private static <E> Map<Callback<E>, ListenerExecutor> generateCallbackListenerExecutorMap() {
         return Collections.synchronizedMap(new HashMap<Callback<E>, ListenerExecutor>());
     }
 
-    private final WeakHashMap<ListenerExecutor, byte[]> discardExecutors = new WeakHashMap<>();
-    private final byte[] content = new byte[0];
-
     private final Map<Callback<E>, ListenerExecutor> customExecutorMap;
     private final Class<? extends ListenerExecutor> perExecutorClass;
+    private final ListenerExecutorFactory perExecutorFactory;
     private final ListenerExecutor defaultExecutor;
     private final ListenerExecutor destroyExecutor;
+    private final QuarantinePolicy quarantinePolicy;
+    private final boolean lazyExecutorStart;
+    // null unless event slots are enabled
+    private final EventSlot.Pool<E> slotPool;
+    // both null unless callbacks without a bound executor are partitioned by key
+    private final KeyExtractor<? super E> keyExtractor;
+    private final ListenerExecutor partitionedExecutor;
+    // null unless callbacks may be added for an attribute value
+    private final KeyExtractor<? super E> attributeExtractor;
+    // the filter index of each array of registrations notified in snapshot mode, dropped when the listeners change
+    private volatile FilterIndexes filterIndexes;
 
     public CallbackDispatcher() {
         this(new Builder<E>());
@@ -51,8 +72,22 @@ public class CallbackDispatcher<E> extends AbstractDispatcher {
             customExecutorMap = generateCallbackListenerExecutorMap();
         }
         perExecutorClass = builder.perExecutorClass;
+        perExecutorFactory = builder.perExecutorFactory;
         defaultExecutor = builder.defaultExecutor;
         destroyExecutor = builder.destroyExecutor;
+        quarantinePolicy = builder.quarantinePolicy;
+        lazyExecutorStart = builder.lazyExecutorStart;
+        slotPool = builder.eventFactory != null
+                ? new EventSlot.Pool<>(builder.eventFactory, builder.eventSlotCapacity) : null;
+        if ((builder.keyExtractor == null) != (builder.partitionedExecutor == null)) {
+            throw new IllegalArgumentException("Partitioning needs both a key extractor and an executor");
+        }
+        keyExtractor = builder.keyExtractor;
+        partitionedExecutor = builder.partitionedExecutor;
+        attributeExtractor = builder.attributeExtractor;
+        registerOwnedExecutor(defaultExecutor);
+        registerOwnedExecutor(destroyExecutor);
+        registerOwnedExecutor(partitionedExecutor);
     }
 
     @Override
@@ -64,157 +99,1085 @@ public class CallbackDispatcher<E> extends AbstractDispatcher {
         return defaultExecutor;
     }
 
+    public final ListenerExecutorFactory getPerExecutorFactory() {
+        return perExecutorFactory;
+    }
+
     public final ListenerExecutor getDestroyExecutor() {
         return destroyExecutor;
     }
 
+    public final QuarantinePolicy getQuarantinePolicy() {
+        return quarantinePolicy;
+    }
+
+    public final boolean isLazyExecutorStart() {
+        return lazyExecutorStart;
+    }
+
+    public final ListenerExecutor getPartitionedExecutor() {
+        return partitionedExecutor;
+    }
+
+    public final KeyExtractor<? super E> getAttributeExtractor() {
+        return attributeExtractor;
+    }
+
+    /**
+     * Adds the callback for events of the given type, its subclasses and implementations, type routing must be
+     * enabled by the builder.
+     */
+    public final <T extends E> boolean addListener(Class<T> eventType, Callback<? super T> callback) {
+        return addListenerForType(eventType, callback);
+    }
+
+    /**
+     * Adds the callback for the events the filter accepts. The filter runs on the notifying thread, so the
+     * other events are never handed to the executor of the callback; keep it cheap and side effect free.
+     */
+    public final boolean addListener(Callback<E> callback, EventFilter<? super E> filter) {
+        if (filter == null) {
+            return addListener(callback);
+        }
+        purgeExpiredListeners();
+        if (callback == null || isClosed() || isDuplicate(callback)) {
+            return false;
+        }
+        return addRegistration(bindRegistration(callback, customExecutorMap.get(callback), null, filter, false,
+                null));
+    }
+
+    /**
+     * Adds the callback for the events whose attribute, told by the attribute extractor of the builder,
+     * equals the given value. In snapshot mode these callbacks are looked up by the attribute of each event
+     * instead of tested one by one.
+     */
+    public final boolean addListenerForAttribute(Callback<E> callback, Object attributeValue) {
+        if (attributeExtractor == null) {
+            throw new IllegalStateException("No attribute extractor is set");
+        }
+        purgeExpiredListeners();
+        if (callback == null || isClosed() || isDuplicate(callback)) {
+            return false;
+        }
+        return addRegistration(bindRegistration(callback, customExecutorMap.get(callback), null, null, true,
+                attributeValue));
+    }
+
+    /**
+     * Claims a free event slot to fill and publish, event slots must be enabled by the builder.
+     */
+    public final EventSlot<E> claimSlot() {
+        if (slotPool == null) {
+            throw new IllegalStateException("Event slots are not enabled");
+        }
+        return slotPool.claim();
+    }
+
+    /**
+     * Notifies the event of a claimed slot, the slot is taken back once every callback finished with it,
+     * or when its deliveries are dropped. Each claimed slot is published once.
+     */
+    public final void publish(EventSlot<E> slot) {
+        slot.publish();
+        notifyListeners(slot);
+    }
+
+    /**
+     * Notifies the events of the claimed slots in order, as {@link #publish(EventSlot)} does for one.
+     */
+    public final void publishInBatch(EventSlot<E>[] slots) {
+        for (int i = 0; i < slots.length; ++i) {
+            slots[i].publish();
+        }
+        notifyListenersInBatch(slots);
+    }
+
+    /**
+     * Returns how many slots are free to claim without creating one, 0 if event slots are not enabled.
+     */
+    public final int getFreeSlotCount() {
+        return slotPool != null ? slotPool.freeCount() : 0;
+    }
+
     @Override
     protected void onListenersUpdate(int code, Listener listener) {
         switch (code) {
             case CODE_LISTENER_ADDED:
-                try {
-                    // try cast to report error at addListener
-                    final Callback<E> callback = (Callback<E>)listener;
-                    System.out.println("add Callback: " + callback);
-                    onCallbackAdded(callback);
-                } catch (Throwable e) {
-                    throw new IllegalStateException(e);
-                }
+                System.out.println("add Callback: " + listener);
                 break;
             case CODE_LISTENER_REMOVED:
-                try {
-                    onCallbackRemoved((Callback<E>)listener);
-                } catch (Throwable e) {
-                    throw new IllegalStateException(e);
-                }
-                break;
             case CODE_LISTENERS_CLEARED:
-                try {
-                    onCallbacksCleared();
-                } catch (Throwable e) {
-                    throw new IllegalStateException(e);
-                }
                 break;
             default:
                 throw new UnsupportedOperationException("Unknown listeners update code");
         }
     }
 
-    private void onCallbackAdded(Callback<E> callback) throws Throwable {
-        ListenerExecutor listenerExecutor = customExecutorMap.get(callback);
-        if (listenerExecutor != null && listenerExecutor.isNotInitialized()) {
-            listenerExecutor.initialize(); // sync
-            return;
+    @Override
+    protected Registration newRegistration(Listener listener) {
+        // cast here to report error at addListener
+        final Callback<E> callback = cast(listener);
+        return bindRegistration(callback, customExecutorMap.get(callback), null, null, false, null);
+    }
+
+    @Override
+    protected Registration newRegistration(Listener listener, Class<?> eventType) {
+        final Callback<E> callback = cast(listener);
+        return bindRegistration(callback, customExecutorMap.get(callback), eventType, null, false, null);
+    }
+
+    /**
+     * Looks the custom executors of all callbacks up under one lock, if binding one fails
+     * the ones already bound are released together.
+     */
+    @Override
+    protected Registration[] newRegistrations(Listener[] listeners) {
+        final ListenerExecutor[] customExecutors = new ListenerExecutor[listeners.length];
+        synchronized(customExecutorMap) {
+            for (int i = 0; i < listeners.length; ++i) {
+                customExecutors[i] = customExecutorMap.get(listeners[i]);
+            }
         }
-        if (perExecutorClass != null) {
-            listenerExecutor = perExecutorClass.newInstance();
-            listenerExecutor.initialize(); // sync
-            customExecutorMap.put(callback, listenerExecutor);
+        final Registration[] registrations = new Registration[listeners.length];
+        int bound = 0;
+        try {
+            for (; bound < listeners.length; ++bound) {
+                final Callback<E> callback = cast(listeners[bound]);
+                registrations[bound] = bindRegistration(callback, customExecutors[bound], null, null, false, null);
+            }
+        } finally {
+            if (bound < listeners.length && bound > 0) {
+                onRegistrationsReleased(Arrays.copyOf(registrations, bound));
+            }
         }
+        return registrations;
     }
 
-    private void onCallbackRemoved(Callback<E> callback) throws Throwable {
-        destroyBoundListenerExecutor(customExecutorMap.remove(callback));
+    private Registration bindRegistration(Callback<E> callback, ListenerExecutor customExecutor, Class<?> eventType,
+                                          EventFilter<? super E> filter, boolean hasAttribute, Object attribute) {
+        ListenerExecutor boundExecutor = customExecutor;
+        ListenerExecutorFactory executorFactory = null;
+        try {
+            if (boundExecutor == null) {
+                if (perExecutorFactory != null) {
+                    executorFactory = perExecutorFactory;
+                    boundExecutor = executorFactory.create(callback);
+                } else if (perExecutorClass != null) {
+                    boundExecutor = perExecutorClass.newInstance();
+                }
+            }
+            if (!lazyExecutorStart && boundExecutor != null && boundExecutor.isNotInitialized()) {
+                boundExecutor.initialize(); // sync
+            }
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+        final ListenerExecutor executor;
+        if (boundExecutor != null) {
+            executor = boundExecutor;
+        } else {
+            executor = partitionedExecutor != null ? null : defaultExecutor;
+        }
+        return new CallbackRegistration<>(this, callback, eventType, boundExecutor, executorFactory, executor,
+                quarantinePolicy, filter, hasAttribute, attribute);
     }
 
-    private void onCallbacksCleared() throws Throwable {
-        final Set<Callback<E>> callbacks = customExecutorMap.keySet();
-        for (Callback<E> callback : callbacks) {
-            destroyBoundListenerExecutor(customExecutorMap.remove(callback));
+    /**
+     * Gives executors back to the factory, and destroys the bound executors of all registrations
+     * with one task on the destroy executor. A custom executor still used by a registered callback, as when
+     * the released registration was rejected as its duplicate, is left alone.
+     */
+    @Override
+    protected void onRegistrationsReleased(Registration[] registrations) {
+        final Set<ListenerExecutor> inUse = customExecutorsInUse(registrations);
+        final List<ListenerExecutor> destroyed = new ArrayList<>();
+        synchronized(customExecutorMap) {
+            for (int i = 0; i < registrations.length; ++i) {
+                final CallbackRegistration<E> registration = cast(registrations[i]);
+                // null if a weak registration was purged
+                final Listener callback = registration.getListener();
+                registration.markReleased();
+                if (registration.executorFactory == null && registration.boundExecutor != null
+                        && !inUse.contains(registration.boundExecutor)) {
+                    if (callback != null && customExecutorMap.get(callback) == registration.boundExecutor) {
+                        customExecutorMap.remove(callback);
+                    }
+                    if (isDestroyable(registration.boundExecutor)) {
+                        destroyed.add(registration.boundExecutor);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < registrations.length; ++i) {
+            final CallbackRegistration<E> registration = cast(registrations[i]);
+            if (registration.executorFactory != null) {
+                try {
+                    registration.executorFactory.release(registration.getListener(), registration.boundExecutor);
+                } catch (Throwable e) {
+                    e.printStackTrace();
+                }
+            }
         }
+        destroyBoundListenerExecutors(destroyed);
     }
 
-    private void destroyBoundListenerExecutor(final ListenerExecutor listenerExecutor) {
-        if (listenerExecutor != null) {
-            if (listenerExecutor.getMode() == ListenerExecutor.Mode.FOR_SINGLE_LISTENER
-                    && !listenerExecutor.isDestroyed()) {
-                if (destroyExecutor != null) {
-                    destroyExecutor.execute(new Runnable() {
-                        @Override
-                        public void run() {
-                            listenerExecutor.destroy();
-                        }
-                    });
-                } else {
-                    listenerExecutor.destroy();
+    // the custom executors of the released registrations which registered callbacks still use
+    private Set<ListenerExecutor> customExecutorsInUse(Registration[] released) {
+        Set<ListenerExecutor> custom = null;
+        for (int i = 0; i < released.length; ++i) {
+            final CallbackRegistration<E> registration = cast(released[i]);
+            if (registration.executorFactory == null && registration.boundExecutor != null) {
+                if (custom == null) {
+                    custom = Collections.newSetFromMap(new IdentityHashMap<ListenerExecutor, Boolean>());
+                }
+                custom.add(registration.boundExecutor);
+            }
+        }
+        if (custom == null) {
+            return Collections.emptySet();
+        }
+        final Set<ListenerExecutor> inUse = Collections.newSetFromMap(new IdentityHashMap<ListenerExecutor, Boolean>());
+        final Registration[] live = cloneListeners();
+        for (int i = 0; i < live.length; ++i) {
+            final ListenerExecutor executor = ((CallbackRegistration<?>) live[i]).boundExecutor;
+            if (executor != null && custom.contains(executor)) {
+                inUse.add(executor);
+            }
+        }
+        return inUse;
+    }
+
+    private static boolean isDestroyable(ListenerExecutor listenerExecutor) {
+        return listenerExecutor.getMode() == ListenerExecutor.Mode.FOR_SINGLE_LISTENER
+                && !listenerExecutor.isNotInitialized() && !listenerExecutor.isDestroyed();
+    }
+
+    private void destroyBoundListenerExecutors(final List<ListenerExecutor> listenerExecutors) {
+        if (listenerExecutors.isEmpty()) {
+            return;
+        }
+        final Runnable destroyAll = new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < listenerExecutors.size(); ++i) {
+                    try {
+                        listenerExecutors.get(i).destroy();
+                    } catch (Throwable e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        };
+        if (destroyExecutor != null && !isClosed()) {
+            destroyExecutor.execute(destroyAll);
+        } else { // on close the destroy executor may go first
+            destroyAll.run();
+        }
+    }
+
+    @Override
+    protected void doNotifyListeners(Registration[] registrations, Object event) {
+        final EventSlot<E> slot;
+        final E value;
+        if (slotPool != null && event instanceof EventSlot) {
+            slot = cast(event);
+            value = slot.get();
+        } else {
+            slot = null;
+            value = cast(event);
+        }
+        Registration[] tested = registrations;
+        // registrations already known to match the attribute of the event
+        Registration[] matched = ListenerRegistry.NO_REGISTRATIONS;
+        Object attribute = null;
+        if (attributeExtractor != null) {
+            attribute = attributeOf(value);
+            if (isSnapshotMode()) {
+                final FilterIndex index = filterIndexOf(registrations);
+                tested = index.unindexed;
+                matched = index.matching(attribute);
+            }
+        }
+        final int count = tested.length + matched.length;
+        // a published slot is held once by each registration, until the callback finished or the delivery dropped
+        if (slot != null) {
+            slot.retain(count);
+        }
+        Registration[] partitioned = null;
+        int partitionedCount = 0;
+        for (int i = 0; i < count; ++i) {
+            final boolean attributeMatched = i >= tested.length;
+            final CallbackRegistration<E> registration = cast(attributeMatched
+                    ? matched[i - tested.length] : tested[i]);
+            if (!registration.accepts(value, attribute, attributeMatched)) {
+                registration.dropped(event, null);
+                continue;
+            }
+            if (registration.partitioned) {
+                if (partitioned == null) {
+                    partitioned = new Registration[count - i];
                 }
-            } else if (listenerExecutor.getMode() == ListenerExecutor.Mode.FOR_SINGLE_LISTENER
-                    && !listenerExecutor.isDestroyed()
-                    && perExecutorClass != null && listenerExecutor.getClass().equals(perExecutorClass)) {
-                discardExecutors.put(listenerExecutor, content);
+                partitioned[partitionedCount++] = registration;
+                continue;
             }
+            try {
+                notifyCallback(registration, CallbackDispatcher.<E>cast(event));
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+        }
+        if (partitionedCount > 0) {
+            notifyPartitioned(partitioned, partitionedCount, event, value);
+        }
+        if (slot != null) {
+            slot.release(); // the producer's reference
         }
     }
 
     @Override
-    protected void doNotifyListeners(Listener[] listeners, Object event) {
-        for (int i = 0; i < listeners.length; ++i) {
+    protected void doNotifyListenersInBatch(Registration[] registrations, Object[] events) {
+        Object[] values = events;
+        if (slotPool != null) {
+            values = null;
+            for (int i = 0; i < events.length; ++i) {
+                if (events[i] instanceof EventSlot) {
+                    final EventSlot<E> slot = cast(events[i]);
+                    slot.retain(registrations.length);
+                    if (values == null) {
+                        values = Arrays.copyOf(events, events.length, Object[].class);
+                    }
+                    values[i] = slot.get();
+                }
+            }
+            if (values == null) {
+                values = events;
+            }
+        }
+        Object[] attributes = null;
+        if (attributeExtractor != null) {
+            attributes = new Object[events.length];
+            for (int i = 0; i < events.length; ++i) {
+                attributes[i] = attributeOf(CallbackDispatcher.<E>cast(values[i]));
+            }
+        }
+        int partitioned = 0;
+        for (int i = 0; i < registrations.length; ++i) {
+            final CallbackRegistration<E> registration = cast(registrations[i]);
+            if (registration.partitioned) {
+                ++partitioned;
+                continue;
+            }
+            final Object[] accepted = registration.filtered ? filter(registration, events, values, attributes) : events;
+            if (accepted.length == 0) {
+                continue;
+            }
             try {
-                notifyCallback((Callback<E>) listeners[i], (E) event);
+                notifyCallbackInBatch(registration, accepted);
             } catch (Throwable e) {
                 e.printStackTrace();
             }
         }
+        if (partitioned > 0) {
+            final Registration[] accepted = new Registration[partitioned];
+            for (int i = 0; i < events.length; ++i) {
+                final E value = cast(values[i]);
+                int count = 0;
+                for (int j = 0; j < registrations.length; ++j) {
+                    final CallbackRegistration<E> registration = cast(registrations[j]);
+                    if (!registration.partitioned) {
+                        continue;
+                    }
+                    if (registration.accepts(value, attributes != null ? attributes[i] : null, false)) {
+                        accepted[count++] = registration;
+                    } else {
+                        registration.dropped(events[i], null);
+                    }
+                }
+                if (count > 0) {
+                    notifyPartitioned(Arrays.copyOf(accepted, count), count, events[i], value);
+                }
+            }
+        }
+        if (slotPool != null) {
+            releaseSlots(events);
+        }
     }
 
-    private void notifyCallback(final Callback<E> callback, final E event) throws Throwable {
-        final Runnable runnable = new Runnable() {
-            @Override
-            public void run() {
+    /**
+     * Returns the events the registration accepts, the others are dropped for it.
+     */
+    private Object[] filter(CallbackRegistration<E> registration, Object[] events, Object[] values,
+                            Object[] attributes) {
+        final Object[] accepted = new Object[events.length];
+        int count = 0;
+        for (int i = 0; i < events.length; ++i) {
+            final E value = cast(values[i]);
+            if (registration.accepts(value, attributes != null ? attributes[i] : null, false)) {
+                accepted[count++] = events[i];
+            } else {
+                registration.dropped(events[i], null);
+            }
+        }
+        return count == events.length ? events : Arrays.copyOf(accepted, count);
+    }
+
+    private Object attributeOf(E value) {
+        try {
+            return attributeExtractor.keyOf(value);
+        } catch (Throwable e) {
+            e.printStackTrace();
+            return UNKNOWN_ATTRIBUTE;
+        }
+    }
+
+    /**
+     * With type routing each event class has its own array of registrations, so one index is kept per array.
+     */
+    private FilterIndex filterIndexOf(Registration[] registrations) {
+        final long version = getListenersVersion();
+        FilterIndexes indexes = filterIndexes;
+        if (indexes == null || indexes.version != version) {
+            indexes = new FilterIndexes(version);
+            filterIndexes = indexes;
+        }
+        FilterIndex index = indexes.byRegistrations.get(registrations);
+        if (index == null) {
+            index = new FilterIndex(registrations);
+            final FilterIndex raced = indexes.byRegistrations.putIfAbsent(registrations, index);
+            if (raced != null) {
+                index = raced;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Hands the event to the lane of its key once for the first count partitioned registrations,
+     * which get it there one after another.
+     */
+    private void notifyPartitioned(Registration[] registrations, int count, Object event, E value) {
+        final E typedEvent = cast(event);
+        final PartitionedDelivery delivery;
+        try {
+            delivery = new PartitionedDelivery(registrations, count, typedEvent, keyExtractor.keyOf(value));
+        } catch (Throwable e) {
+            e.printStackTrace();
+            new PartitionedDelivery(registrations, count, typedEvent, null).discard();
+            return;
+        }
+        boolean accepted = false;
+        try {
+            accepted = partitionedExecutor.execute(delivery) != null;
+        } catch (Throwable e) {
+            e.printStackTrace();
+        } finally {
+            if (!accepted) {
+                delivery.discard();
+            }
+        }
+    }
+
+    // a slot is routed by the class of its event
+    @Override
+    protected Class<?> eventTypeOf(Object event) {
+        if (slotPool != null && event instanceof EventSlot) {
+            final Object value = ((EventSlot<?>) event).get();
+            return value != null ? value.getClass() : null;
+        }
+        return super.eventTypeOf(event);
+    }
+
+    @Override
+    protected void onEventDropped(Object event) {
+        if (slotPool != null) {
+            releaseSlot(event);
+        }
+    }
+
+    /**
+     * The only unchecked cast of this dispatcher. Its registrations are all {@link CallbackRegistration}s of its
+     * callbacks, and the untyped events handed down by {@link AbstractDispatcher} are always an E or an event slot
+     * of E travelling in its place.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    private static void releaseSlot(Object event) {
+        if (event instanceof EventSlot) {
+            ((EventSlot<?>) event).release();
+        }
+    }
+
+    private static void releaseSlots(Object[] events) {
+        for (int i = 0; i < events.length; ++i) {
+            releaseSlot(events[i]);
+        }
+    }
+
+    private void notifyCallbackInBatch(final CallbackRegistration<E> registration, final Object[] events)
+            throws Throwable {
+        final int route = registration.route();
+        if (route == CallbackQuarantine.ROUTE_SHED || !registration.ensureStarted(route)) {
+            registration.dropped(null, events);
+            return;
+        }
+        final ListenerExecutor listenerExecutor = registration.executorOf(route);
+        if (listenerExecutor == null) {
+            for (int i = 0; i < events.length; ++i) {
                 try {
-                    callback.on(event);
+                    registration.invoke(CallbackDispatcher.<E>cast(events[i]));
                 } catch (Throwable e) {
                     e.printStackTrace();
                 }
             }
-        };
-        final ListenerExecutor listenerExecutor = customExecutorMap.get(callback);
-        if (listenerExecutor != null) {
-            listenerExecutor.execute(runnable);
             return;
         }
-        if (defaultExecutor != null) {
-            defaultExecutor.execute(runnable);
+        final DeliveryTask deliveryTask = registration.deliveryTaskOf(route);
+        if (deliveryTask != null) {
+            deliveryTask.dispatchAll(listenerExecutor, events);
+            return;
+        }
+        if (listenerExecutor.isCoverUnexectuedMode() && events.length > 1) {
+            // only the latest event would be kept
+            final Object[] covered = Arrays.copyOf(events, events.length - 1);
+            registration.dropped(null, covered);
+            registration.onEventsCovered(covered.length);
+            registration.hand(listenerExecutor, new QueuedDelivery<>(registration,
+                    CallbackDispatcher.<E>cast(events[covered.length]), null, route));
             return;
         }
-        runnable.run();
+        registration.hand(listenerExecutor, new QueuedDelivery<>(registration, null, events, route));
     }
 
-    // If the user forgets destroy listener executors, try to make a last effort here.
-    @Override
-    protected void finalize() throws Throwable {
-        super.finalize();
-        final Set<ListenerExecutor> listenerExecutors = discardExecutors.keySet();
-        for (ListenerExecutor executor : listenerExecutors) {
-            destroyBoundListenerExecutor(executor);
+    private void notifyCallback(final CallbackRegistration<E> registration, final E event) throws Throwable {
+        final int route = registration.route();
+        if (route == CallbackQuarantine.ROUTE_SHED || !registration.ensureStarted(route)) {
+            registration.dropped(event, null);
+            return;
         }
-        destroyBoundListenerExecutor(defaultExecutor);
-        destroyBoundListenerExecutor(destroyExecutor);
+        final ListenerExecutor listenerExecutor = registration.executorOf(route);
+        if (listenerExecutor == null) {
+            try {
+                registration.invoke(event);
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+        final DeliveryTask deliveryTask = registration.deliveryTaskOf(route);
+        if (deliveryTask != null) {
+            deliveryTask.dispatch(listenerExecutor, event);
+            return;
+        }
+        registration.hand(listenerExecutor, new QueuedDelivery<>(registration, event, null, route));
     }
 
-    private void destroySpecialExecutorSilently(ListenerExecutor listenerExecutor) {
-        try {
-            if (listenerExecutor != null && listenerExecutor.getMode() == ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER
-                    && !listenerExecutor.isDestroyed()) {
-                listenerExecutor.destroy();
+    private static final class CallbackRegistration<E> extends Registration {
+        // the executor owned by this registration, from customExecutorMap, perExecutorFactory or perExecutorClass
+        final ListenerExecutor boundExecutor;
+        // not null if boundExecutor must be given back to it
+        final ListenerExecutorFactory executorFactory;
+        // the executor deliveries go to, null means call on the notifying thread
+        final ListenerExecutor executor;
+        final DeliveryTask deliveryTask;
+        // null if the callback is never quarantined
+        final CallbackQuarantine quarantine;
+        // deliveries waiting in an executor, counted only for the quarantine without reusable delivery
+        final AtomicInteger pending;
+        // without reusable delivery, the latest delivery waiting for an executor in cover-unexecuted mode
+        final AtomicReference<QueuedDelivery<E>> latest;
+        // not null for isolating with reusable delivery, so the isolated deliveries leave the normal executor
+        final DeliveryTask isolatedTask;
+        // if true boundExecutor is initialized by the first delivery routed to it
+        final boolean lazyStart;
+        // if true events may be event slots, released by each delivery
+        final boolean slotted;
+        // if true deliveries go through the lane of the event key, executor is null
+        final boolean partitioned;
+        // null if every event is accepted
+        final EventFilter<? super E> filter;
+        // if true only events whose attribute equals attribute are accepted
+        final boolean hasAttribute;
+        final Object attribute;
+        // if true some events may not be accepted
+        final boolean filtered;
+        private volatile boolean started;
+        // guarded by this
+        private boolean released;
+
+        CallbackRegistration(CallbackDispatcher<E> dispatcher, Callback<E> callback, Class<?> eventType,
+                             ListenerExecutor boundExecutor, ListenerExecutorFactory executorFactory,
+                             ListenerExecutor executor, QuarantinePolicy quarantinePolicy,
+                             EventFilter<? super E> filter, boolean hasAttribute, Object attribute) {
+            super(dispatcher, callback, eventType);
+            final boolean reusableDelivery = dispatcher.isReusableDelivery();
+            this.boundExecutor = boundExecutor;
+            this.executorFactory = executorFactory;
+            this.executor = executor;
+            this.lazyStart = dispatcher.lazyExecutorStart && boundExecutor != null;
+            this.slotted = dispatcher.slotPool != null;
+            this.partitioned = boundExecutor == null && dispatcher.partitionedExecutor != null;
+            this.filter = filter;
+            this.hasAttribute = hasAttribute;
+            this.attribute = attribute;
+            this.filtered = filter != null || hasAttribute;
+            this.deliveryTask = reusableDelivery ? newDeliveryTask(CallbackQuarantine.ROUTE_NORMAL) : null;
+            this.latest = reusableDelivery ? null : new AtomicReference<QueuedDelivery<E>>();
+            if (quarantinePolicy != null) {
+                quarantine = new CallbackQuarantine(quarantinePolicy, this);
+                pending = reusableDelivery ? null : new AtomicInteger();
+                isolatedTask = reusableDelivery && quarantinePolicy.getAction() == QuarantinePolicy.Action.ISOLATE
+                        ? newDeliveryTask(CallbackQuarantine.ROUTE_ISOLATED) : null;
+            } else {
+                quarantine = null;
+                pending = null;
+                isolatedTask = null;
+            }
+        }
+
+        @Override
+        protected void onOrphaned() {
+            markReleased();
+            if (executorFactory != null) {
+                executorFactory.release(getListener(), boundExecutor);
+            } else if (boundExecutor != null && boundExecutor.getMode() == ListenerExecutor.Mode.FOR_SINGLE_LISTENER
+                    && !boundExecutor.isNotInitialized() && !boundExecutor.isDestroyed()) {
+                boundExecutor.destroy();
+            }
+        }
+
+        private DeliveryTask newDeliveryTask(final int route) {
+            return new DeliveryTask(getMetrics() != null) {
+                @Override
+                protected void deliver(Object event, long enqueueNanos) {
+                    final E value = cast(event);
+                    if (!redirect(route, value, null)) {
+                        invoke(value, enqueueNanos);
+                    }
+                }
+
+                @Override
+                protected void onDropped(Object event) {
+                    dropped(event, null);
+                }
+
+                @Override
+                protected void onCovered(int count) {
+                    onEventsCovered(count);
+                }
+            };
+        }
+
+        /**
+         * Tells on the notifying thread if the event is for this callback, a filter which throws rejects it.
+         *
+         * @param attributeMatched true if the attribute of the event is already known to match
+         */
+        boolean accepts(E value, Object eventAttribute, boolean attributeMatched) {
+            if (!filtered) {
+                return true;
+            }
+            if (hasAttribute && !attributeMatched
+                    && (attribute == null ? eventAttribute != null : !attribute.equals(eventAttribute))) {
+                return false;
+            }
+            if (filter == null) {
+                return true;
+            }
+            try {
+                return filter.accept(value);
+            } catch (Throwable e) {
+                e.printStackTrace();
+                return false;
+            }
+        }
+
+        int route() {
+            if (quarantine == null) {
+                return CallbackQuarantine.ROUTE_NORMAL;
+            }
+            return quarantine.route(deliveryTask != null ? deliveryTask.queuedCount() : pending.get());
+        }
+
+        /**
+         * Initializes a lazily started bound executor before the first delivery on the normal route,
+         * returns false if the registration was already released so the delivery must be dropped.
+         */
+        boolean ensureStarted(int route) {
+            if (!lazyStart || started || route != CallbackQuarantine.ROUTE_NORMAL) {
+                return true;
+            }
+            synchronized(this) {
+                if (released) {
+                    return false;
+                }
+                if (!started) {
+                    if (boundExecutor.isNotInitialized()) {
+                        boundExecutor.initialize(); // sync
+                    }
+                    started = true;
+                }
+                return true;
+            }
+        }
+
+        // after this a lazily started bound executor is never initialized
+        void markReleased() {
+            if (lazyStart) {
+                synchronized(this) {
+                    released = true;
+                }
+            }
+        }
+
+        ListenerExecutor executorOf(int route) {
+            return route == CallbackQuarantine.ROUTE_ISOLATED ? quarantine.getIsolatedExecutor() : executor;
+        }
+
+        DeliveryTask deliveryTaskOf(int route) {
+            return route == CallbackQuarantine.ROUTE_ISOLATED ? isolatedTask : deliveryTask;
+        }
+
+        /**
+         * In cover-unexecuted mode a delivery still waiting is replaced instead of handing another one,
+         * the one already handed runs the latest when the executor gets to it.
+         */
+        void hand(ListenerExecutor listenerExecutor, QueuedDelivery<E> delivery) {
+            if (pending != null) {
+                pending.incrementAndGet();
+            }
+            if (latest != null && listenerExecutor.isCoverUnexectuedMode()) {
+                delivery.conflated = true;
+                final QueuedDelivery<E> previous = latest.getAndSet(delivery);
+                if (previous != null) {
+                    previous.cover();
+                    return;
+                }
+            }
+            boolean accepted = false;
+            try {
+                accepted = listenerExecutor.execute(delivery) != null;
+            } finally {
+                if (!accepted) {
+                    delivery.discard();
+                }
+            }
+        }
+
+        /**
+         * Moves a delivery queued on the normal route before the quarantine off the normal executor,
+         * returns false if it should be delivered here.
+         */
+        boolean redirect(int route, E event, Object[] events) {
+            if (route != CallbackQuarantine.ROUTE_NORMAL || quarantine == null || !quarantine.isQuarantined()) {
+                return false;
+            }
+            final ListenerExecutor isolatedExecutor = quarantine.getIsolatedExecutor();
+            if (isolatedExecutor == null) {
+                dropped(event, events); // shed
+                return true;
+            }
+            if (isolatedTask == null) {
+                hand(isolatedExecutor, new QueuedDelivery<>(this, event, events, CallbackQuarantine.ROUTE_ISOLATED));
+            } else if (events == null) {
+                isolatedTask.dispatch(isolatedExecutor, event);
+            } else {
+                isolatedTask.dispatchAll(isolatedExecutor, events);
+            }
+            return true;
+        }
+
+        /**
+         * Releases the event slots of a delivery which will never be invoked.
+         */
+        void dropped(Object event, Object[] events) {
+            if (slotted) {
+                if (events == null) {
+                    releaseSlot(event);
+                } else {
+                    releaseSlots(events);
+                }
+            }
+        }
+
+        long enqueueTime() {
+            return getMetrics() != null ? System.nanoTime() : 0L;
+        }
+
+        void invoke(E event, long enqueueNanos) {
+            final ListenerMetrics metrics = getMetrics();
+            if (metrics != null) {
+                metrics.recordWait(System.nanoTime() - enqueueNanos);
+            }
+            invoke(event);
+        }
+
+        void invoke(E event) {
+            if (slotted && event instanceof EventSlot) {
+                final EventSlot<E> slot = cast(event);
+                try {
+                    invokeCallback(slot.get());
+                } finally {
+                    slot.release();
+                }
+                return;
+            }
+            invokeCallback(event);
+        }
+
+        private void invokeCallback(E event) {
+            final Callback<E> callback = cast(getListener());
+            if (callback == null) {
+                return; // collected, purged on the next add, remove or notify
+            }
+            final ListenerMetrics metrics = getMetrics();
+            if (metrics == null && quarantine == null) {
+                callback.on(event);
+                return;
+            }
+            final long start = System.nanoTime();
+            try {
+                callback.on(event);
+            } catch (Throwable e) {
+                if (metrics != null) {
+                    metrics.recordError();
+                }
+                throw e;
+            } finally {
+                final long runNanos = System.nanoTime() - start;
+                if (metrics != null) {
+                    metrics.recordRun(runNanos);
+                }
+                if (quarantine != null) {
+                    quarantine.onRun(runNanos);
+                }
+            }
+        }
+    }
+
+    /**
+     * Delivers one event to the partitioned registrations which accepted it, on the lane of its key.
+     */
+    private final class PartitionedDelivery implements Runnable, ListenerExecutor.Discardable, ListenerExecutor.Keyed {
+        private final Registration[] registrations;
+        private final int count;
+        private final E event;
+        private final Object key;
+
+        PartitionedDelivery(Registration[] registrations, int count, E event, Object key) {
+            this.registrations = registrations;
+            this.count = count;
+            this.event = event;
+            this.key = key;
+        }
+
+        @Override
+        public Object partitionKey() {
+            return key;
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < count; ++i) {
+                final CallbackRegistration<E> registration = cast(registrations[i]);
+                try {
+                    // the normal route calls on this lane, the quarantine may still isolate or shed
+                    notifyCallback(registration, event);
+                } catch (Throwable e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        @Override
+        public void discard() {
+            for (int i = 0; i < count; ++i) {
+                final CallbackRegistration<E> registration = cast(registrations[i]);
+                registration.dropped(event, null);
+            }
+        }
+    }
+
+    private static final class FilterIndexes {
+        final long version;
+        // arrays do not override equals, so they are looked up by identity
+        final ConcurrentHashMap<Registration[], FilterIndex> byRegistrations = new ConcurrentHashMap<>();
+
+        FilterIndexes(long version) {
+            this.version = version;
+        }
+    }
+
+    /**
+     * The registrations of one snapshot, those added for an attribute value grouped by it.
+     */
+    private static final class FilterIndex {
+        // registrations tested one by one
+        final Registration[] unindexed;
+        final Map<Object, Registration[]> indexed;
+
+        FilterIndex(Registration[] registrations) {
+            final List<Registration> unindexedList = new ArrayList<>();
+            final Map<Object, List<Registration>> indexedLists = new HashMap<>();
+            for (int i = 0; i < registrations.length; ++i) {
+                final CallbackRegistration<?> registration = (CallbackRegistration<?>) registrations[i];
+                if (!registration.hasAttribute) {
+                    unindexedList.add(registration);
+                    continue;
+                }
+                List<Registration> list = indexedLists.get(registration.attribute);
+                if (list == null) {
+                    list = new ArrayList<>();
+                    indexedLists.put(registration.attribute, list);
+                }
+                list.add(registration);
+            }
+            unindexed = unindexedList.size() == registrations.length
+                    ? registrations : unindexedList.toArray(ListenerRegistry.NO_REGISTRATIONS);
+            indexed = new HashMap<>(indexedLists.size() * 2);
+            for (Map.Entry<Object, List<Registration>> entry : indexedLists.entrySet()) {
+                indexed.put(entry.getKey(), entry.getValue().toArray(ListenerRegistry.NO_REGISTRATIONS));
+            }
+        }
+
+        Registration[] matching(Object attribute) {
+            final Registration[] matched = indexed.isEmpty() ? null : indexed.get(attribute);
+            return matched != null ? matched : ListenerRegistry.NO_REGISTRATIONS;
+        }
+    }
+
+    private static final class QueuedDelivery<E> implements Runnable, ListenerExecutor.Discardable {
+        private static final AtomicIntegerFieldUpdater<QueuedDelivery<?>> DEQUEUED =
+                AtomicIntegerFieldUpdater.newUpdater(CallbackDispatcher.<Class<QueuedDelivery<?>>>cast(
+                        QueuedDelivery.class), "dequeued");
+
+        private final CallbackRegistration<E> registration;
+        private final E event;
+        // not null for a batch
+        private final Object[] events;
+        private final int route;
+        private final long enqueueNanos;
+        // if true this delivery went through the latest slot of its registration, set before it is handed
+        boolean conflated;
+        private volatile int dequeued;
+
+        QueuedDelivery(CallbackRegistration<E> registration, E event, Object[] events, int route) {
+            this.registration = registration;
+            this.event = event;
+            this.events = events;
+            this.route = route;
+            this.enqueueNanos = registration.enqueueTime();
+        }
+
+        @Override
+        public void run() {
+            if (conflated) {
+                // this one may have been covered, run the latest instead
+                final QueuedDelivery<E> current = registration.latest.getAndSet(null);
+                if (current != null) {
+                    current.deliver();
+                }
+                return;
+            }
+            deliver();
+        }
+
+        private void deliver() {
+            settle();
+            try {
+                if (registration.redirect(route, event, events)) {
+                    return;
+                }
+            } catch (Throwable e) {
+                e.printStackTrace();
+                return;
+            }
+            if (events == null) {
+                try {
+                    registration.invoke(event, enqueueNanos);
+                } catch (Throwable e) {
+                    e.printStackTrace();
+                }
+                return;
+            }
+            for (int i = 0; i < events.length; ++i) {
+                try {
+                    registration.invoke(CallbackDispatcher.<E>cast(events[i]), enqueueNanos);
+                } catch (Throwable e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        @Override
+        public void discard() {
+            if (conflated) {
+                // nothing else would run the latest delivery
+                final QueuedDelivery<E> current = registration.latest.getAndSet(null);
+                if (current != null && current != this) {
+                    current.drop();
+                }
+            }
+            drop();
+        }
+
+        // replaced by a newer delivery of the same registration
+        void cover() {
+            if (settle()) {
+                registration.dropped(event, events);
+                registration.onEventsCovered(events == null ? 1 : events.length);
+            }
+        }
+
+        private void drop() {
+            if (settle()) {
+                registration.dropped(event, events);
             }
-        } catch (Throwable e) {
-            // ignored
+        }
+
+        // returns false if already run or discarded
+        private boolean settle() {
+            if (!DEQUEUED.compareAndSet(this, 0, 1)) {
+                return false;
+            }
+            if (registration.pending != null) {
+                registration.pending.decrementAndGet();
+            }
+            return true;
         }
     }
 
     public static class Builder<E> extends AbstractDispatcher.Builder {
         private final Map<Callback<E>, ListenerExecutor> customExecutorMap;
         private Class<? extends ListenerExecutor> perExecutorClass;
+        private ListenerExecutorFactory perExecutorFactory;
         private ListenerExecutor defaultExecutor;
         private ListenerExecutor destroyExecutor;
+        private QuarantinePolicy quarantinePolicy;
+        private boolean lazyExecutorStart;
+        private EventFactory<E> eventFactory;
+        private int eventSlotCapacity;
+        private KeyExtractor<? super E> keyExtractor;
+        private ListenerExecutor partitionedExecutor;
+        private KeyExtractor<? super E> attributeExtractor;
 
         public Builder() {
             super();
             customExecutorMap = generateCallbackListenerExecutorMap();
             perExecutorClass = null;
+            perExecutorFactory = null;
             defaultExecutor = null;
             destroyExecutor = null;
+            quarantinePolicy = null;
+            lazyExecutorStart = false;
+            eventFactory = null;
+            eventSlotCapacity = 0;
+            keyExtractor = null;
+            partitionedExecutor = null;
+            attributeExtractor = null;
         }
 
         protected Builder(CallbackDispatcher<E> dispatcher) {
@@ -225,10 +1188,23 @@ public class CallbackDispatcher<E> extends AbstractDispatcher {
                 customExecutorMap = generateCallbackListenerExecutorMap();
             }
             perExecutorClass = dispatcher.perExecutorClass;
+            perExecutorFactory = dispatcher.perExecutorFactory;
             defaultExecutor = dispatcher.defaultExecutor;
             destroyExecutor = dispatcher.destroyExecutor;
+            quarantinePolicy = dispatcher.quarantinePolicy;
+            lazyExecutorStart = dispatcher.lazyExecutorStart;
+            if (dispatcher.slotPool != null) {
+                eventFactory = dispatcher.slotPool.factory();
+                eventSlotCapacity = dispatcher.slotPool.capacity();
+            }
+            keyExtractor = dispatcher.keyExtractor;
+            partitionedExecutor = dispatcher.partitionedExecutor;
+            attributeExtractor = dispatcher.attributeExtractor;
         }
 
+        /**
+         * Executors put here before a callback is added are bound to its registration when it is added.
+         */
         public final Map<Callback<E>, ListenerExecutor> customExecutorMap() {
             return customExecutorMap;
         }
@@ -242,6 +1218,19 @@ public class CallbackDispatcher<E> extends AbstractDispatcher {
             return this;
         }
 
+        public ListenerExecutorFactory getPerExecutorFactory() {
+            return perExecutorFactory;
+        }
+
+        /**
+         * Takes precedence over the per executor class, for example a
+         * {@link com.johnsoft.listeners.executors.SerialLaneListenerExecutor} giving each callback a lane.
+         */
+        public Builder<E> setPerExecutorFactory(ListenerExecutorFactory perExecutorFactory) {
+            this.perExecutorFactory = perExecutorFactory;
+            return this;
+        }
+
         public ListenerExecutor getDefaultExecutor() {
             return defaultExecutor;
         }
@@ -260,6 +1249,89 @@ public class CallbackDispatcher<E> extends AbstractDispatcher {
             return this;
         }
 
+        public QuarantinePolicy getQuarantinePolicy() {
+            return quarantinePolicy;
+        }
+
+        /**
+         * If set, each callback is timed and quarantined when it runs too long or falls behind.
+         * Deliveries of a callback may be reordered around its quarantine transitions.
+         */
+        public Builder<E> setQuarantinePolicy(QuarantinePolicy quarantinePolicy) {
+            this.quarantinePolicy = quarantinePolicy;
+            return this;
+        }
+
+        public boolean isLazyExecutorStart() {
+            return lazyExecutorStart;
+        }
+
+        /**
+         * If true, the executor bound to a callback is initialized by the first delivery to that callback
+         * instead of when it is added, so callbacks never notified hold no thread. Executors from a factory
+         * are still created when added, use an
+         * {@link com.johnsoft.listeners.executors.OnDemandListenerExecutor} to also stop them when idle.
+         */
+        public Builder<E> setLazyExecutorStart(boolean lazyExecutorStart) {
+            this.lazyExecutorStart = lazyExecutorStart;
+            return this;
+        }
+
+        public EventFactory<E> getEventFactory() {
+            return eventFactory;
+        }
+
+        public int getEventSlotCapacity() {
+            return eventSlotCapacity;
+        }
+
+        /**
+         * Enables {@link CallbackDispatcher#claimSlot()} with the given number of preallocated slots, which is also
+         * how many free slots are kept. Size it for the events in flight, beyond that claiming creates new slots.
+         * Combine with reusable delivery, so handing the slots to the executors allocates nothing either.
+         */
+        public Builder<E> setEventSlots(EventFactory<E> eventFactory, int eventSlotCapacity) {
+            this.eventFactory = eventFactory;
+            this.eventSlotCapacity = eventSlotCapacity;
+            return this;
+        }
+
+        public KeyExtractor<? super E> getKeyExtractor() {
+            return keyExtractor;
+        }
+
+        public ListenerExecutor getPartitionedExecutor() {
+            return partitionedExecutor;
+        }
+
+        /**
+         * If set, callbacks without a bound executor get each event on the lane of its key instead of on the
+         * default executor, so events of the same key reach them in order and events of other keys in parallel.
+         * A callback may then run on several lanes at once. Both must be set, or both null.
+         *
+         * @param partitionedExecutor runs {@link ListenerExecutor.Keyed} runnables of equal keys in order, like a
+         * {@link com.johnsoft.listeners.executors.PartitionedListenerExecutor}
+         */
+        public Builder<E> setPartitioning(KeyExtractor<? super E> keyExtractor,
+                                          ListenerExecutor partitionedExecutor) {
+            this.keyExtractor = keyExtractor;
+            this.partitionedExecutor = partitionedExecutor;
+            return this;
+        }
+
+        public KeyExtractor<? super E> getAttributeExtractor() {
+            return attributeExtractor;
+        }
+
+        /**
+         * Enables {@link CallbackDispatcher#addListenerForAttribute(Callback, Object)}, the attribute of each event
+         * is told once per notify, and compared with equals.
+         */
+        public Builder<E> setFilterAttribute(KeyExtractor<? super E> attributeExtractor) {
+            this.attributeExtractor = attributeExtractor;
+            return this;
+        }
+
         @Override
         public Builder<E> setDistinct(boolean distinct) {
             super.setDistinct(distinct);
@@ -278,6 +1350,48 @@ public class CallbackDispatcher<E> extends AbstractDispatcher {
             return this;
         }
 
+        @Override
+        public Builder<E> setSnapshotMode(boolean snapshotMode) {
+            super.setSnapshotMode(snapshotMode);
+            return this;
+        }
+
+        @Override
+        public Builder<E> setLockFreeRegistry(boolean lockFreeRegistry) {
+            super.setLockFreeRegistry(lockFreeRegistry);
+            return this;
+        }
+
+        @Override
+        public Builder<E> setReusableDelivery(boolean reusableDelivery) {
+            super.setReusableDelivery(reusableDelivery);
+            return this;
+        }
+
+        @Override
+        public Builder<E> setMetricsEnabled(boolean metricsEnabled) {
+            super.setMetricsEnabled(metricsEnabled);
+            return this;
+        }
+
+        @Override
+        public Builder<E> setWeakListeners(boolean weakListeners) {
+            super.setWeakListeners(weakListeners);
+            return this;
+        }
+
+        @Override
+        public Builder<E> setIngestionStripes(int ingestionStripes) {
+            super.setIngestionStripes(ingestionStripes);
+            return this;
+        }
+
+        @Override
+        public Builder<E> setTypeRouting(boolean typeRouting) {
+            super.setTypeRouting(typeRouting);
+            return this;
+        }
+
         @Override
         public CallbackDispatcher<E> build() {
             return new CallbackDispatcher<>(this);
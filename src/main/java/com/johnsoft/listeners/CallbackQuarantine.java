@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.johnsoft.listeners.AbstractDispatcher.Registration;
+
+/**
+ * The circuit breaker of one callback: HEALTHY trips to QUARANTINED after too many slow runs in a row or
+ * on a backlog, QUARANTINED turns to PROBING after the recovery delay, and PROBING goes back to HEALTHY
+ * on the first run within budget or trips again.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+final class CallbackQuarantine {
+    static final int ROUTE_NORMAL = 0;
+    static final int ROUTE_ISOLATED = 1;
+    static final int ROUTE_SHED = 2;
+
+    private final QuarantinePolicy policy;
+    private final Registration registration;
+    private final AtomicReference<QuarantinePolicy.State> state =
+            new AtomicReference<>(QuarantinePolicy.State.HEALTHY);
+    private final AtomicInteger slowStreak = new AtomicInteger();
+    private volatile long trippedAt;
+
+    CallbackQuarantine(QuarantinePolicy policy, Registration registration) {
+        this.policy = policy;
+        this.registration = registration;
+    }
+
+    /**
+     * Decides where the next delivery goes, given how many deliveries are waiting for the callback.
+     */
+    int route(int backlog) {
+        switch (state.get()) {
+            case QUARANTINED:
+                if (System.nanoTime() - trippedAt >= policy.getRecoveryNanos()
+                        && transit(QuarantinePolicy.State.QUARANTINED, QuarantinePolicy.State.PROBING)) {
+                    return ROUTE_NORMAL;
+                }
+                return quarantinedRoute();
+            case PROBING:
+            case HEALTHY:
+            default:
+                if (backlog > policy.getMaxBacklog() && trip()) {
+                    return quarantinedRoute();
+                }
+                return state.get() == QuarantinePolicy.State.QUARANTINED ? quarantinedRoute() : ROUTE_NORMAL;
+        }
+    }
+
+    boolean isQuarantined() {
+        return state.get() == QuarantinePolicy.State.QUARANTINED;
+    }
+
+    /**
+     * Returns null if shedding.
+     */
+    ListenerExecutor getIsolatedExecutor() {
+        return policy.getIsolatedExecutor();
+    }
+
+    void onRun(long runNanos) {
+        final boolean slow = runNanos > policy.getExecutionBudgetNanos();
+        switch (state.get()) {
+            case HEALTHY:
+                if (!slow) {
+                    slowStreak.set(0);
+                } else if (slowStreak.incrementAndGet() >= policy.getSlowInvocationThreshold()) {
+                    trip();
+                }
+                break;
+            case PROBING:
+                if (slow) {
+                    trip();
+                } else {
+                    slowStreak.set(0);
+                    transit(QuarantinePolicy.State.PROBING, QuarantinePolicy.State.HEALTHY);
+                }
+                break;
+            case QUARANTINED:
+            default:
+                if (slow) {
+                    trippedAt = System.nanoTime(); // still slow in isolation, wait again
+                }
+                break;
+        }
+    }
+
+    private int quarantinedRoute() {
+        return policy.getAction() == QuarantinePolicy.Action.ISOLATE ? ROUTE_ISOLATED : ROUTE_SHED;
+    }
+
+    private boolean trip() {
+        final QuarantinePolicy.State from = state.get();
+        if (from == QuarantinePolicy.State.QUARANTINED) {
+            return false;
+        }
+        trippedAt = System.nanoTime();
+        slowStreak.set(0);
+        return transit(from, QuarantinePolicy.State.QUARANTINED);
+    }
+
+    private boolean transit(QuarantinePolicy.State from, QuarantinePolicy.State to) {
+        if (!state.compareAndSet(from, to)) {
+            return false;
+        }
+        final QuarantineListener quarantineListener = policy.getQuarantineListener();
+        final Listener callback = registration.getListener();
+        if (quarantineListener != null && callback != null) {
+            try {
+                quarantineListener.onQuarantineChanged((Callback<?>) callback, from, to);
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+        }
+        return true;
+    }
+}
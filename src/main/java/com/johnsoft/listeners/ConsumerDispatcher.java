@@ -16,6 +16,8 @@
  */
 package com.johnsoft.listeners;
 
+import com.johnsoft.listeners.metrics.ListenerMetrics;
+
 /**
  * @author John Kenrinus Lee
  * @version 2016-07-15
@@ -34,6 +36,14 @@ public class ConsumerDispatcher<E> extends AbstractDispatcher {
         return new Builder<>(this);
     }
 
+    /**
+     * Adds the consumer for events of the given type, its subclasses and implementations, type routing must be
+     * enabled by the builder. It keeps its place in the chain among the consumers of other types.
+     */
+    public final <T extends E> boolean addListener(Class<T> eventType, Consumer<? super T> consumer) {
+        return addListenerForType(eventType, consumer);
+    }
+
     @Override
     protected void onListenersUpdate(int code, Listener listener) {
         if (code == CODE_LISTENER_ADDED) {
@@ -51,15 +61,30 @@ public class ConsumerDispatcher<E> extends AbstractDispatcher {
     }
 
     @Override
-    protected void doNotifyListeners(Listener[] listeners, Object event) {
-        for (int i = 0; i < listeners.length; ++i) {
+    @SuppressWarnings("unchecked") // only consumers of E are added, and only events of E notified
+    protected void doNotifyListeners(Registration[] registrations, Object event) {
+        for (int i = 0; i < registrations.length; ++i) {
+            final Consumer<E> consumer = (Consumer<E>) registrations[i].getListener();
+            if (consumer == null) {
+                continue; // collected weak registration
+            }
+            final ListenerMetrics metrics = registrations[i].getMetrics();
+            final long start = metrics != null ? System.nanoTime() : 0L;
+            boolean consumed = false;
             try {
-                if (((Consumer<E>) listeners[i]).on((E) event)) {
-                    break;
-                }
+                consumed = consumer.on((E) event);
             } catch (Throwable e) {
+                if (metrics != null) {
+                    metrics.recordError();
+                }
                 e.printStackTrace();
             }
+            if (metrics != null) {
+                metrics.recordRun(System.nanoTime() - start);
+            }
+            if (consumed) {
+                break;
+            }
         }
     }
 
@@ -90,6 +115,48 @@ public class ConsumerDispatcher<E> extends AbstractDispatcher {
             return this;
         }
 
+        @Override
+        public Builder<E> setSnapshotMode(boolean snapshotMode) {
+            super.setSnapshotMode(snapshotMode);
+            return this;
+        }
+
+        @Override
+        public Builder<E> setLockFreeRegistry(boolean lockFreeRegistry) {
+            super.setLockFreeRegistry(lockFreeRegistry);
+            return this;
+        }
+
+        @Override
+        public Builder<E> setReusableDelivery(boolean reusableDelivery) {
+            super.setReusableDelivery(reusableDelivery);
+            return this;
+        }
+
+        @Override
+        public Builder<E> setMetricsEnabled(boolean metricsEnabled) {
+            super.setMetricsEnabled(metricsEnabled);
+            return this;
+        }
+
+        @Override
+        public Builder<E> setWeakListeners(boolean weakListeners) {
+            super.setWeakListeners(weakListeners);
+            return this;
+        }
+
+        @Override
+        public Builder<E> setIngestionStripes(int ingestionStripes) {
+            super.setIngestionStripes(ingestionStripes);
+            return this;
+        }
+
+        @Override
+        public Builder<E> setTypeRouting(boolean typeRouting) {
+            super.setTypeRouting(typeRouting);
+            return this;
+        }
+
         @Override
         public ConsumerDispatcher<E> build() {
             return new ConsumerDispatcher<>(this);
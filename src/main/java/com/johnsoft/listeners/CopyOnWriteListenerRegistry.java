@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.johnsoft.listeners.AbstractDispatcher.Registration;
+
+/**
+ * Listeners kept in an immutable array which is replaced by compare-and-swap,
+ * the observer is called after the swap without holding any lock.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+final class CopyOnWriteListenerRegistry extends ListenerRegistry {
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+    private final boolean distinct;
+
+    CopyOnWriteListenerRegistry(boolean distinct) {
+        this.distinct = distinct;
+    }
+
+    @Override
+    boolean add(Registration registration, Observer observer) {
+        final Listener listener = registration.getListener();
+        Snapshot current;
+        Registration[] registrations;
+        do {
+            current = snapshot.get();
+            if (distinct && indexOf(current.registrations, listener) >= 0) {
+                return false;
+            }
+            final int length = current.registrations.length;
+            registrations = new Registration[length + 1];
+            System.arraycopy(current.registrations, 0, registrations, 0, length);
+            registrations[length] = registration;
+        } while (!snapshot.compareAndSet(current, new Snapshot(registrations, current.version + 1L)));
+        observer.onUpdate(AbstractDispatcher.CODE_LISTENER_ADDED, listener);
+        return true;
+    }
+
+    @Override
+    Registration[] addAll(Registration[] added, Observer observer) {
+        Snapshot current;
+        List<Registration> accepted;
+        do {
+            current = snapshot.get();
+            accepted = new ArrayList<>(added.length);
+            // registrations are equal when their listeners are equal
+            final Set<Registration> present = distinct ? new HashSet<>(Arrays.asList(current.registrations)) : null;
+            for (int i = 0; i < added.length; ++i) {
+                if (present == null || present.add(added[i])) {
+                    accepted.add(added[i]);
+                }
+            }
+            if (accepted.isEmpty()) {
+                return NO_REGISTRATIONS;
+            }
+        } while (!snapshot.compareAndSet(current, new Snapshot(concat(current.registrations, accepted),
+                current.version + 1L)));
+        for (int i = 0; i < accepted.size(); ++i) {
+            observer.onUpdate(AbstractDispatcher.CODE_LISTENER_ADDED, accepted.get(i).getListener());
+        }
+        return accepted.toArray(NO_REGISTRATIONS);
+    }
+
+    @Override
+    Registration remove(Listener listener, Observer observer) {
+        Snapshot current;
+        Registration removed;
+        Registration[] registrations;
+        do {
+            current = snapshot.get();
+            final int index = indexOf(current.registrations, listener);
+            if (index < 0) {
+                return null;
+            }
+            removed = current.registrations[index];
+            final int length = current.registrations.length;
+            if (length == 1) {
+                registrations = NO_REGISTRATIONS;
+            } else {
+                registrations = new Registration[length - 1];
+                System.arraycopy(current.registrations, 0, registrations, 0, index);
+                System.arraycopy(current.registrations, index + 1, registrations, index, length - index - 1);
+            }
+        } while (!snapshot.compareAndSet(current, new Snapshot(registrations, current.version + 1L)));
+        observer.onUpdate(AbstractDispatcher.CODE_LISTENER_REMOVED, listener);
+        return removed;
+    }
+
+    @Override
+    Registration[] removeAll(Listener[] listeners, Observer observer) {
+        Snapshot current;
+        List<Registration> kept;
+        List<Registration> removed;
+        do {
+            current = snapshot.get();
+            final Map<Listener, Integer> counts = countListeners(listeners);
+            kept = new ArrayList<>(current.registrations.length);
+            removed = new ArrayList<>(listeners.length);
+            for (int i = 0; i < current.registrations.length; ++i) {
+                final Registration registration = current.registrations[i];
+                (takeListener(counts, registration.getListener()) ? removed : kept).add(registration);
+            }
+            if (removed.isEmpty()) {
+                return NO_REGISTRATIONS;
+            }
+        } while (!snapshot.compareAndSet(current,
+                new Snapshot(kept.toArray(NO_REGISTRATIONS), current.version + 1L)));
+        for (int i = 0; i < removed.size(); ++i) {
+            observer.onUpdate(AbstractDispatcher.CODE_LISTENER_REMOVED, removed.get(i).getListener());
+        }
+        return removed.toArray(NO_REGISTRATIONS);
+    }
+
+    @Override
+    Registration[] removeRegistrations(Registration[] stale, Observer observer) {
+        final Set<Registration> staleSet = Collections.newSetFromMap(new IdentityHashMap<Registration, Boolean>());
+        Collections.addAll(staleSet, stale);
+        Snapshot current;
+        List<Registration> kept;
+        List<Registration> removed;
+        do {
+            current = snapshot.get();
+            kept = new ArrayList<>(current.registrations.length);
+            removed = new ArrayList<>(stale.length);
+            for (int i = 0; i < current.registrations.length; ++i) {
+                final Registration registration = current.registrations[i];
+                (staleSet.contains(registration) ? removed : kept).add(registration);
+            }
+            if (removed.isEmpty()) {
+                return NO_REGISTRATIONS;
+            }
+        } while (!snapshot.compareAndSet(current,
+                new Snapshot(kept.toArray(NO_REGISTRATIONS), current.version + 1L)));
+        for (int i = 0; i < removed.size(); ++i) {
+            observer.onUpdate(AbstractDispatcher.CODE_LISTENER_REMOVED, removed.get(i).getListener());
+        }
+        return removed.toArray(NO_REGISTRATIONS);
+    }
+
+    @Override
+    boolean contains(Listener listener) {
+        return indexOf(snapshot.get().registrations, listener) >= 0;
+    }
+
+    @Override
+    Registration[] clear(Observer observer) {
+        Snapshot current;
+        do {
+            current = snapshot.get();
+        } while (!snapshot.compareAndSet(current, new Snapshot(NO_REGISTRATIONS, current.version + 1L)));
+        observer.onUpdate(AbstractDispatcher.CODE_LISTENERS_CLEARED, null);
+        return current.registrations;
+    }
+
+    @Override
+    Registration[] snapshot() {
+        return snapshot.get().registrations;
+    }
+
+    @Override
+    long version() {
+        return snapshot.get().version;
+    }
+
+    @Override
+    Snapshot versionedSnapshot() {
+        return snapshot.get();
+    }
+
+    private static Registration[] concat(Registration[] registrations, List<Registration> added) {
+        final Registration[] result = new Registration[registrations.length + added.size()];
+        System.arraycopy(registrations, 0, result, 0, registrations.length);
+        for (int i = 0; i < added.size(); ++i) {
+            result[registrations.length + i] = added.get(i);
+        }
+        return result;
+    }
+
+    private static int indexOf(Registration[] registrations, Listener listener) {
+        for (int i = 0; i < registrations.length; ++i) {
+            if (registrations[i].matches(listener)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs a cleanup action once its owner became phantom reachable, on one shared daemon thread,
+ * unless the cleanup was run explicitly before. The action must not reference the owner.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+final class DispatcherCleaner {
+    private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+    // keeps the registered cleanups reachable until they run
+    private static final Set<Cleanup> PENDING = Collections.newSetFromMap(new ConcurrentHashMap<Cleanup, Boolean>());
+
+    static {
+        final Thread thread = new Thread("listeners-cleaner") {
+            @Override
+            public void run() {
+                for (;;) {
+                    try {
+                        ((Cleanup) QUEUE.remove()).clean();
+                    } catch (Throwable e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        };
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private DispatcherCleaner() {}
+
+    static Cleanup register(Object owner, Runnable action) {
+        final Cleanup cleanup = new Cleanup(owner, action);
+        PENDING.add(cleanup);
+        return cleanup;
+    }
+
+    static final class Cleanup extends PhantomReference<Object> {
+        private final Runnable action;
+
+        private Cleanup(Object owner, Runnable action) {
+            super(owner, QUEUE);
+            this.action = action;
+        }
+
+        /**
+         * Runs the action at most once, on the calling thread.
+         */
+        void clean() {
+            if (PENDING.remove(this)) {
+                clear();
+                action.run();
+            }
+        }
+    }
+}
@@ -23,11 +23,19 @@ package com.johnsoft.listeners;
 public final class Dispatchers {
     private Dispatchers() {}
 
+    /**
+     * A chain of consumers of events of the given class, which only fixes the event type of the builder.
+     * Type routing is enabled, so consumers may also be added for subclasses and implementations.
+     */
     public static <E> ConsumerDispatcher.Builder<E> orderedDependentDispatcher(Class<E> clazz) {
-        return new ConsumerDispatcher.Builder<>();
+        return new ConsumerDispatcher.Builder<E>().setTypeRouting(true);
     }
 
+    /**
+     * Independent callbacks of events of the given class, which only fixes the event type of the builder.
+     * Type routing is enabled, so callbacks may also be added for subclasses and implementations.
+     */
     public static <E> CallbackDispatcher.Builder<E> disorderedIndependentDispatcher(Class<E> clazz) {
-        return new CallbackDispatcher.Builder<>();
+        return new CallbackDispatcher.Builder<E>().setTypeRouting(true);
     }
 }
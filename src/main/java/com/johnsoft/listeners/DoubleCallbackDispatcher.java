@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners;
+
+/**
+ * Notifies {@link DoubleCallback}s of double events without boxing them.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class DoubleCallbackDispatcher extends PrimitiveCallbackDispatcher {
+    private static final Decoder DECODER = new Decoder() {
+        @Override
+        public void invoke(Listener listener, long bits) {
+            ((DoubleCallback) listener).on(Double.longBitsToDouble(bits));
+        }
+    };
+
+    public DoubleCallbackDispatcher() {
+        this(new Builder());
+    }
+
+    protected DoubleCallbackDispatcher(Builder builder) {
+        super(builder, DECODER);
+    }
+
+    @Override
+    public Builder newBuilder() {
+        return new Builder(this);
+    }
+
+    public final void notifyListeners(double event) {
+        notifyBits(Double.doubleToRawLongBits(event));
+    }
+
+    /**
+     * Notifies the events in order, the array is copied so the caller may reuse it.
+     */
+    public final void notifyListenersInBatch(double[] events) {
+        if (events != null) {
+            final long[] bits = new long[events.length];
+            for (int i = 0; i < events.length; ++i) {
+                bits[i] = Double.doubleToRawLongBits(events[i]);
+            }
+            notifyBitsInBatch(bits);
+        }
+    }
+
+    @Override
+    protected long toBits(Object event) {
+        return Double.doubleToRawLongBits(((Number) event).doubleValue());
+    }
+
+    @Override
+    protected Class<? extends Listener> getCallbackType() {
+        return DoubleCallback.class;
+    }
+
+    public static class Builder extends PrimitiveCallbackDispatcher.Builder {
+        public Builder() {
+            super();
+        }
+
+        protected Builder(DoubleCallbackDispatcher dispatcher) {
+            super(dispatcher);
+        }
+
+        @Override
+        public Builder setDistinct(boolean distinct) {
+            super.setDistinct(distinct);
+            return this;
+        }
+
+        @Override
+        public Builder setCallThread(ListenerExecutor callThread) {
+            super.setCallThread(callThread);
+            return this;
+        }
+
+        @Override
+        public Builder setVisitSameWithNotify(boolean visitSameWithNotify) {
+            super.setVisitSameWithNotify(visitSameWithNotify);
+            return this;
+        }
+
+        @Override
+        public Builder setSnapshotMode(boolean snapshotMode) {
+            super.setSnapshotMode(snapshotMode);
+            return this;
+        }
+
+        @Override
+        public Builder setLockFreeRegistry(boolean lockFreeRegistry) {
+            super.setLockFreeRegistry(lockFreeRegistry);
+            return this;
+        }
+
+        @Override
+        public Builder setMetricsEnabled(boolean metricsEnabled) {
+            super.setMetricsEnabled(metricsEnabled);
+            return this;
+        }
+
+        @Override
+        public Builder setWeakListeners(boolean weakListeners) {
+            super.setWeakListeners(weakListeners);
+            return this;
+        }
+
+        @Override
+        public Builder setIngestionStripes(int ingestionStripes) {
+            super.setIngestionStripes(ingestionStripes);
+            return this;
+        }
+
+        @Override
+        public Builder setPerExecutorClass(Class<? extends ListenerExecutor> perExecutorClass) {
+            super.setPerExecutorClass(perExecutorClass);
+            return this;
+        }
+
+        @Override
+        public Builder setPerExecutorFactory(ListenerExecutorFactory perExecutorFactory) {
+            super.setPerExecutorFactory(perExecutorFactory);
+            return this;
+        }
+
+        @Override
+        public Builder setDefaultExecutor(ListenerExecutor defaultExecutor) {
+            super.setDefaultExecutor(defaultExecutor);
+            return this;
+        }
+
+        @Override
+        public Builder setDestroyExecutor(ListenerExecutor destroyExecutor) {
+            super.setDestroyExecutor(destroyExecutor);
+            return this;
+        }
+
+        @Override
+        public DoubleCallbackDispatcher build() {
+            return new DoubleCallbackDispatcher(this);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A reusable event claimed from a {@link CallbackDispatcher}, filled in place and published. The dispatcher
+ * counts the deliveries still holding it and takes it back once every callback finished with it, so neither the
+ * producer nor the callbacks may keep the event after that.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public final class EventSlot<E> {
+    private final E event;
+    private final Pool<E> pool;
+    private final AtomicInteger references = new AtomicInteger();
+
+    EventSlot(E event, Pool<E> pool) {
+        this.event = event;
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the event to fill before publishing.
+     */
+    public E get() {
+        return event;
+    }
+
+    // the producer's reference, released after the slot was handed to every registration
+    void publish() {
+        if (!references.compareAndSet(0, 1)) {
+            throw new IllegalStateException("Slot already published");
+        }
+    }
+
+    void retain(int count) {
+        if (count > 0) {
+            references.addAndGet(count);
+        }
+    }
+
+    void release() {
+        if (references.decrementAndGet() == 0) {
+            pool.recycle(this);
+        }
+    }
+
+    /**
+     * Free slots of one dispatcher, claiming from an empty pool creates a new slot,
+     * and slots released to a full pool are left to the garbage collector.
+     */
+    static final class Pool<E> {
+        private final EventFactory<E> factory;
+        private final EventSlot<E>[] free;
+        private int freeCount;
+
+        Pool(EventFactory<E> factory, int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("capacity must be positive");
+            }
+            this.factory = factory;
+            @SuppressWarnings({ "unchecked", "rawtypes" }) // holds only the slots of this pool
+            final EventSlot<E>[] slots = (EventSlot<E>[]) new EventSlot[capacity];
+            this.free = slots;
+            for (int i = 0; i < capacity; ++i) {
+                free[i] = new EventSlot<>(factory.newEvent(), this);
+            }
+            freeCount = capacity;
+        }
+
+        EventSlot<E> claim() {
+            synchronized(this) {
+                if (freeCount > 0) {
+                    final EventSlot<E> slot = free[--freeCount];
+                    free[freeCount] = null;
+                    return slot;
+                }
+            }
+            return new EventSlot<>(factory.newEvent(), this);
+        }
+
+        synchronized void recycle(EventSlot<E> slot) {
+            if (freeCount < free.length) {
+                free[freeCount++] = slot;
+            }
+        }
+
+        synchronized int freeCount() {
+            return freeCount;
+        }
+
+        EventFactory<E> factory() {
+            return factory;
+        }
+
+        int capacity() {
+            return free.length;
+        }
+    }
+}
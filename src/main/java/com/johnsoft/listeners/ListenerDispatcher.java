@@ -16,15 +16,32 @@
  */
 package com.johnsoft.listeners;
 
+import java.util.Collection;
+
 /**
  * @author John Kenrinus Lee
  * @version 2016-07-15
  */
-public interface ListenerDispatcher {
+public interface ListenerDispatcher extends AutoCloseable {
     boolean addListener(Listener listener);
     boolean removeListener(Listener listener);
+    /**
+     * Adds the listeners with one update of the listeners, returns how many were added.
+     */
+    int addListeners(Collection<? extends Listener> listeners);
+    /**
+     * Removes the listeners with one update of the listeners, returns how many were removed.
+     */
+    int removeListeners(Collection<? extends Listener> listeners);
     boolean containsListener(Listener listener);
     boolean clearListeners();
     void notifyListeners(Object event);
+    void notifyListenersInBatch(Object[] events);
     void visitListeners(ListenerVisitor visitor);
+
+    /**
+     * Removes all listeners and destroys the executors owned by the dispatcher, later adds and notifies are ignored.
+     */
+    @Override
+    void close();
 }
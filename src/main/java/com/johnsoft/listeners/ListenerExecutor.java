@@ -26,8 +26,15 @@ public interface ListenerExecutor {
     boolean isAlive();
     void destroy();
     boolean isDestroyed();
+    /**
+     * Returns null if the runnable was not accepted.
+     */
     CancelControler execute(Runnable runnable);
     Mode getMode();
+    /**
+     * If true, dispatchers keep at most one event of each listener waiting for this executor, a newer event
+     * replaces it. The executor itself still runs every runnable it accepted.
+     */
     boolean isCoverUnexectuedMode();
 
     enum Mode {
@@ -37,4 +44,20 @@ public interface ListenerExecutor {
     interface CancelControler {
         void cancel();
     }
+
+    /**
+     * Runnables implementing this are told when an executor drops them without running them,
+     * for example on queue overflow.
+     */
+    interface Discardable {
+        void discard();
+    }
+
+    /**
+     * Runnables implementing this tell their partition key, a partitioning executor runs the runnables
+     * of equal keys in order.
+     */
+    interface Keyed {
+        Object partitionKey();
+    }
 }
@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners;
+
+/**
+ * Supplies the executor bound to each added listener, and takes it back when the listener is removed.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public interface ListenerExecutorFactory {
+    /**
+     * Returns null to let the listener use the dispatcher's default executor.
+     */
+    ListenerExecutor create(Listener listener);
+    /**
+     * The listener is null if it was weakly registered and garbage collected.
+     */
+    void release(Listener listener, ListenerExecutor executor);
+}
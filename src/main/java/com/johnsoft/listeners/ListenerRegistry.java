@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.johnsoft.listeners.AbstractDispatcher.Registration;
+
+/**
+ * Storage of the listeners of a dispatcher, the observer is told about every real change.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+abstract class ListenerRegistry {
+    static final Registration[] NO_REGISTRATIONS = new Registration[0];
+
+    abstract boolean add(Registration registration, Observer observer);
+
+    /**
+     * Adds the registrations with one update, and returns those which were added.
+     */
+    abstract Registration[] addAll(Registration[] registrations, Observer observer);
+
+    /**
+     * Returns the removed registration, or null if the listener is not registered.
+     */
+    abstract Registration remove(Listener listener, Observer observer);
+
+    /**
+     * Removes the first registration of each listener with one update, and returns the removed registrations.
+     */
+    abstract Registration[] removeAll(Listener[] listeners, Observer observer);
+
+    /**
+     * Removes exactly the given registrations with one update, and returns those which were still registered.
+     */
+    abstract Registration[] removeRegistrations(Registration[] registrations, Observer observer);
+
+    abstract boolean contains(Listener listener);
+
+    /**
+     * Returns the removed registrations.
+     */
+    abstract Registration[] clear(Observer observer);
+
+    /**
+     * The returned array may be shared between callers, never modify it.
+     */
+    abstract Registration[] snapshot();
+
+    abstract long version();
+
+    /**
+     * Returns the registrations together with the version they belong to.
+     */
+    abstract Snapshot versionedSnapshot();
+
+    /**
+     * Returns how many times each listener is given, so removals can match registrations in one pass.
+     */
+    static Map<Listener, Integer> countListeners(Listener[] listeners) {
+        final Map<Listener, Integer> counts = new HashMap<>(listeners.length * 2);
+        for (int i = 0; i < listeners.length; ++i) {
+            final Integer count = counts.get(listeners[i]);
+            counts.put(listeners[i], count == null ? 1 : count + 1);
+        }
+        return counts;
+    }
+
+    /**
+     * Takes one from the count of the listener, returns false if none is left.
+     */
+    static boolean takeListener(Map<Listener, Integer> counts, Listener listener) {
+        if (listener == null) {
+            return false;
+        }
+        final Integer count = counts.get(listener);
+        if (count == null) {
+            return false;
+        }
+        if (count == 1) {
+            counts.remove(listener);
+        } else {
+            counts.put(listener, count - 1);
+        }
+        return true;
+    }
+
+    interface Observer {
+        void onUpdate(int code, Listener listener);
+    }
+
+    static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(NO_REGISTRATIONS, 0L);
+
+        final Registration[] registrations;
+        final long version;
+
+        Snapshot(Registration[] registrations, long version) {
+            this.registrations = registrations;
+            this.version = version;
+        }
+    }
+}
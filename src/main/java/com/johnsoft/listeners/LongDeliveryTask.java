@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners;
+
+/**
+ * A {@link DeliveryTask} for primitive events, queued as raw long bits so they are never boxed.
+ * Ints are widened and doubles are stored by {@link Double#doubleToRawLongBits(double)}.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+abstract class LongDeliveryTask implements Runnable, ListenerExecutor.Discardable {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] events = new long[INITIAL_CAPACITY];
+    private long[] enqueueTimes;
+    private int head;
+    private int size;
+    private boolean scheduled;
+
+    LongDeliveryTask() {
+        this(false);
+    }
+
+    LongDeliveryTask(boolean timed) {
+        if (timed) {
+            enqueueTimes = new long[INITIAL_CAPACITY];
+        }
+    }
+
+    /**
+     * Queues the event and hands this task to the executor if it is not scheduled yet.
+     */
+    final void dispatch(ListenerExecutor executor, long event) {
+        if (offer(event, executor.isCoverUnexectuedMode())) {
+            boolean accepted = false;
+            try {
+                accepted = executor.execute(this) != null;
+            } finally {
+                if (!accepted) {
+                    reject();
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues the events in order and hands this task to the executor at most once.
+     */
+    final void dispatchAll(ListenerExecutor executor, long[] events, int from, int to) {
+        if (offerAll(events, from, to, executor.isCoverUnexectuedMode())) {
+            boolean accepted = false;
+            try {
+                accepted = executor.execute(this) != null;
+            } finally {
+                if (!accepted) {
+                    reject();
+                }
+            }
+        }
+    }
+
+    @Override
+    public final void run() {
+        for (;;) {
+            final long event;
+            final long enqueueNanos;
+            synchronized(this) {
+                if (size == 0) {
+                    scheduled = false;
+                    return;
+                }
+                event = events[head];
+                enqueueNanos = enqueueTimes != null ? enqueueTimes[head] : 0L;
+                head = (head + 1) & (events.length - 1);
+                --size;
+            }
+            try {
+                deliver(event, enqueueNanos);
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Returns how many events are queued and not delivered yet.
+     */
+    final synchronized int queuedCount() {
+        return size;
+    }
+
+    // dropped by the executor, nothing will drain the queued events
+    @Override
+    public final void discard() {
+        reject();
+    }
+
+    /**
+     * @param enqueueNanos the {@link System#nanoTime()} the event was queued at, 0 if not timed
+     */
+    protected abstract void deliver(long event, long enqueueNanos);
+
+    /**
+     * Called with how many events a newer one replaced in cover-unexecuted mode.
+     * Called while holding this task, so it must not dispatch.
+     */
+    protected void onCovered(int count) {
+    }
+
+    private synchronized boolean offer(long event, boolean cover) {
+        if (cover && size > 0) {
+            final int covered = size;
+            dropQueued();
+            onCovered(covered);
+        }
+        enqueue(event, now());
+        if (scheduled) {
+            return false;
+        }
+        scheduled = true;
+        return true;
+    }
+
+    private synchronized boolean offerAll(long[] events, int from, int to, boolean cover) {
+        final long now = now();
+        if (cover) {
+            final int covered = size + to - from - 1;
+            dropQueued();
+            if (covered > 0) {
+                onCovered(covered);
+            }
+            enqueue(events[to - 1], now);
+        } else {
+            for (int i = from; i < to; ++i) {
+                enqueue(events[i], now);
+            }
+        }
+        if (scheduled) {
+            return false;
+        }
+        scheduled = true;
+        return true;
+    }
+
+    // the executor refused this task, so nothing will drain the queued events
+    private synchronized void reject() {
+        dropQueued();
+        scheduled = false;
+    }
+
+    // must hold this
+    private void dropQueued() {
+        size = 0;
+        head = 0;
+    }
+
+    private long now() {
+        return enqueueTimes != null ? System.nanoTime() : 0L;
+    }
+
+    // must hold this
+    private void enqueue(long event, long enqueueNanos) {
+        if (size == events.length) {
+            grow();
+        }
+        final int index = (head + size) & (events.length - 1);
+        events[index] = event;
+        if (enqueueTimes != null) {
+            enqueueTimes[index] = enqueueNanos;
+        }
+        ++size;
+    }
+
+    // must hold this
+    private void grow() {
+        final long[] newEvents = new long[events.length << 1];
+        final long[] newEnqueueTimes = enqueueTimes != null ? new long[events.length << 1] : null;
+        for (int i = 0; i < size; ++i) {
+            final int index = (head + i) & (events.length - 1);
+            newEvents[i] = events[index];
+            if (newEnqueueTimes != null) {
+                newEnqueueTimes[i] = enqueueTimes[index];
+            }
+        }
+        events = newEvents;
+        enqueueTimes = newEnqueueTimes;
+        head = 0;
+    }
+}
@@ -0,0 +1,395 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.johnsoft.listeners.metrics.ListenerMetrics;
+
+/**
+ * Base of the dispatchers for int, long and double events. Events travel as raw long bits from the notifying
+ * thread through the call thread and the listener executors, each registration hands them over with its own
+ * reusable ring, so nothing is boxed on the way. The inherited {@link #notifyListeners(Object)} still takes
+ * boxed numbers, and only that path uses the ingestion stripes, primitive events always share one call thread ring.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public abstract class PrimitiveCallbackDispatcher extends AbstractDispatcher {
+    private final Class<? extends ListenerExecutor> perExecutorClass;
+    private final ListenerExecutorFactory perExecutorFactory;
+    private final ListenerExecutor defaultExecutor;
+    private final ListenerExecutor destroyExecutor;
+    private final Decoder decoder;
+    // not null if a call thread is set
+    private final LongDeliveryTask callThreadTask;
+
+    /**
+     * @param decoder calls the listeners, registrations keep it instead of the dispatcher so an unclosed
+     *                dispatcher can still be reclaimed
+     */
+    protected PrimitiveCallbackDispatcher(Builder builder, Decoder decoder) {
+        super(builder);
+        this.decoder = Objects.requireNonNull(decoder);
+        perExecutorClass = builder.perExecutorClass;
+        perExecutorFactory = builder.perExecutorFactory;
+        defaultExecutor = builder.defaultExecutor;
+        destroyExecutor = builder.destroyExecutor;
+        if (getCallThread() != null) {
+            callThreadTask = new LongDeliveryTask() {
+                @Override
+                protected void deliver(long event, long enqueueNanos) {
+                    deliverBits(cloneListeners(), event);
+                }
+
+                @Override
+                protected void onCovered(int count) {
+                    onEventsCovered(count);
+                }
+            };
+        } else {
+            callThreadTask = null;
+        }
+        registerOwnedExecutor(defaultExecutor);
+        registerOwnedExecutor(destroyExecutor);
+    }
+
+    public final ListenerExecutor getDefaultExecutor() {
+        return defaultExecutor;
+    }
+
+    public final ListenerExecutorFactory getPerExecutorFactory() {
+        return perExecutorFactory;
+    }
+
+    public final ListenerExecutor getDestroyExecutor() {
+        return destroyExecutor;
+    }
+
+    /**
+     * Notifies the raw bits of one event, as {@link #notifyListeners(Object)} does for objects.
+     */
+    protected final void notifyBits(long bits) {
+        if (isClosed()) {
+            return;
+        }
+        purgeExpiredListeners();
+        if (callThreadTask == null) {
+            deliverBits(cloneListeners(), bits);
+        } else {
+            callThreadTask.dispatch(getCallThread(), bits);
+        }
+    }
+
+    /**
+     * Notifies the raw bits of the events in order, the array is copied so the caller may reuse it.
+     */
+    protected final void notifyBitsInBatch(long[] bits) {
+        if (bits.length == 0 || isClosed()) {
+            return;
+        }
+        purgeExpiredListeners();
+        if (callThreadTask == null) {
+            deliverBitsInBatch(cloneListeners(), bits);
+        } else {
+            callThreadTask.dispatchAll(getCallThread(), bits, 0, bits.length);
+        }
+    }
+
+    /**
+     * Returns the raw bits of a boxed event given to {@link #notifyListeners(Object)}.
+     */
+    protected abstract long toBits(Object event);
+
+    @Override
+    protected void onListenersUpdate(int code, Listener listener) {
+    }
+
+    @Override
+    protected final void doNotifyListeners(Registration[] registrations, Object event) {
+        deliverBits(registrations, toBits(event));
+    }
+
+    @Override
+    protected final void doNotifyListenersInBatch(Registration[] registrations, Object[] events) {
+        final long[] bits = new long[events.length];
+        for (int i = 0; i < events.length; ++i) {
+            bits[i] = toBits(events[i]);
+        }
+        deliverBitsInBatch(registrations, bits);
+    }
+
+    @Override
+    protected Registration newRegistration(Listener listener) {
+        getCallbackType().cast(listener); // report error at addListener
+        ListenerExecutor boundExecutor = null;
+        ListenerExecutorFactory executorFactory = null;
+        try {
+            if (perExecutorFactory != null) {
+                executorFactory = perExecutorFactory;
+                boundExecutor = executorFactory.create(listener);
+            } else if (perExecutorClass != null) {
+                boundExecutor = perExecutorClass.newInstance();
+            }
+            if (boundExecutor != null && boundExecutor.isNotInitialized()) {
+                boundExecutor.initialize(); // sync
+            }
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+        return new PrimitiveRegistration(this, decoder, listener, boundExecutor, executorFactory,
+                boundExecutor != null ? boundExecutor : defaultExecutor);
+    }
+
+    /**
+     * Returns the callback interface listeners of this dispatcher must implement.
+     */
+    protected abstract Class<? extends Listener> getCallbackType();
+
+    @Override
+    protected void onRegistrationsReleased(Registration[] registrations) {
+        final List<ListenerExecutor> destroyed = new ArrayList<>();
+        for (int i = 0; i < registrations.length; ++i) {
+            final PrimitiveRegistration registration = (PrimitiveRegistration) registrations[i];
+            if (registration.executorFactory != null) {
+                try {
+                    // null if a weak registration was purged
+                    registration.executorFactory.release(registration.getListener(), registration.boundExecutor);
+                } catch (Throwable e) {
+                    e.printStackTrace();
+                }
+            } else if (registration.isBoundExecutorDestroyable()) {
+                destroyed.add(registration.boundExecutor);
+            }
+        }
+        if (destroyed.isEmpty()) {
+            return;
+        }
+        final Runnable destroyAll = new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < destroyed.size(); ++i) {
+                    try {
+                        destroyed.get(i).destroy();
+                    } catch (Throwable e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        };
+        if (destroyExecutor != null && !isClosed()) {
+            destroyExecutor.execute(destroyAll);
+        } else { // on close the destroy executor may go first
+            destroyAll.run();
+        }
+    }
+
+    private void deliverBits(Registration[] registrations, long bits) {
+        for (int i = 0; i < registrations.length; ++i) {
+            final PrimitiveRegistration registration = (PrimitiveRegistration) registrations[i];
+            try {
+                if (registration.executor == null) {
+                    registration.invoke(bits, 0L);
+                } else {
+                    registration.deliveryTask.dispatch(registration.executor, bits);
+                }
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void deliverBitsInBatch(Registration[] registrations, long[] bits) {
+        for (int i = 0; i < registrations.length; ++i) {
+            final PrimitiveRegistration registration = (PrimitiveRegistration) registrations[i];
+            try {
+                if (registration.executor == null) {
+                    for (int j = 0; j < bits.length; ++j) {
+                        registration.invoke(bits[j], 0L);
+                    }
+                } else {
+                    registration.deliveryTask.dispatchAll(registration.executor, bits, 0, bits.length);
+                }
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Calls a listener with the event decoded from its raw bits, stateless and shared by all dispatchers of a type.
+     */
+    protected interface Decoder {
+        void invoke(Listener listener, long bits);
+    }
+
+    private static final class PrimitiveRegistration extends Registration {
+        private final Decoder decoder;
+        // the executor owned by this registration, from perExecutorFactory or perExecutorClass
+        final ListenerExecutor boundExecutor;
+        // not null if boundExecutor must be given back to it
+        final ListenerExecutorFactory executorFactory;
+        // the executor deliveries go to, null means call on the notifying thread
+        final ListenerExecutor executor;
+        final LongDeliveryTask deliveryTask;
+
+        PrimitiveRegistration(PrimitiveCallbackDispatcher dispatcher, Decoder decoder, Listener listener,
+                              ListenerExecutor boundExecutor, ListenerExecutorFactory executorFactory,
+                              ListenerExecutor executor) {
+            super(dispatcher, listener);
+            this.decoder = decoder;
+            this.boundExecutor = boundExecutor;
+            this.executorFactory = executorFactory;
+            this.executor = executor;
+            this.deliveryTask = executor == null ? null : new LongDeliveryTask(getMetrics() != null) {
+                @Override
+                protected void deliver(long event, long enqueueNanos) {
+                    invoke(event, enqueueNanos);
+                }
+
+                @Override
+                protected void onCovered(int count) {
+                    onEventsCovered(count);
+                }
+            };
+        }
+
+        @Override
+        protected void onOrphaned() {
+            if (executorFactory != null) {
+                executorFactory.release(getListener(), boundExecutor);
+            } else if (isBoundExecutorDestroyable()) {
+                boundExecutor.destroy();
+            }
+        }
+
+        boolean isBoundExecutorDestroyable() {
+            return boundExecutor != null && boundExecutor.getMode() == ListenerExecutor.Mode.FOR_SINGLE_LISTENER
+                    && !boundExecutor.isNotInitialized() && !boundExecutor.isDestroyed();
+        }
+
+        /**
+         * @param enqueueNanos when the event was queued for the executor, 0 if not queued or not timed
+         */
+        void invoke(long bits, long enqueueNanos) {
+            final Listener listener = getListener();
+            if (listener == null) {
+                return; // collected weak registration
+            }
+            final ListenerMetrics metrics = getMetrics();
+            if (metrics == null) {
+                decoder.invoke(listener, bits);
+                return;
+            }
+            final long start = System.nanoTime();
+            if (enqueueNanos != 0L) {
+                metrics.recordWait(start - enqueueNanos);
+            }
+            try {
+                decoder.invoke(listener, bits);
+            } catch (Throwable e) {
+                metrics.recordError();
+                throw e;
+            } finally {
+                metrics.recordRun(System.nanoTime() - start);
+            }
+        }
+    }
+
+    public static abstract class Builder extends AbstractDispatcher.Builder {
+        private Class<? extends ListenerExecutor> perExecutorClass;
+        private ListenerExecutorFactory perExecutorFactory;
+        private ListenerExecutor defaultExecutor;
+        private ListenerExecutor destroyExecutor;
+
+        public Builder() {
+            super();
+            perExecutorClass = null;
+            perExecutorFactory = null;
+            defaultExecutor = null;
+            destroyExecutor = null;
+        }
+
+        protected Builder(PrimitiveCallbackDispatcher dispatcher) {
+            super(dispatcher);
+            perExecutorClass = dispatcher.perExecutorClass;
+            perExecutorFactory = dispatcher.perExecutorFactory;
+            defaultExecutor = dispatcher.defaultExecutor;
+            destroyExecutor = dispatcher.destroyExecutor;
+        }
+
+        public Class<? extends ListenerExecutor> getPerExecutorClass() {
+            return perExecutorClass;
+        }
+
+        public Builder setPerExecutorClass(Class<? extends ListenerExecutor> perExecutorClass) {
+            this.perExecutorClass = perExecutorClass;
+            return this;
+        }
+
+        public ListenerExecutorFactory getPerExecutorFactory() {
+            return perExecutorFactory;
+        }
+
+        /**
+         * Takes precedence over the per executor class.
+         */
+        public Builder setPerExecutorFactory(ListenerExecutorFactory perExecutorFactory) {
+            this.perExecutorFactory = perExecutorFactory;
+            return this;
+        }
+
+        public ListenerExecutor getDefaultExecutor() {
+            return defaultExecutor;
+        }
+
+        public Builder setDefaultExecutor(ListenerExecutor defaultExecutor) {
+            this.defaultExecutor = defaultExecutor;
+            return this;
+        }
+
+        public ListenerExecutor getDestroyExecutor() {
+            return destroyExecutor;
+        }
+
+        /**
+         * Not supported, primitive events always travel through the reusable rings of the registrations.
+         */
+        @Override
+        public final Builder setReusableDelivery(boolean reusableDelivery) {
+            throw new UnsupportedOperationException("Primitive events always use reusable delivery");
+        }
+
+        /**
+         * Not supported, all listeners of a primitive dispatcher take the same event type.
+         */
+        @Override
+        public final Builder setTypeRouting(boolean typeRouting) {
+            throw new UnsupportedOperationException("Primitive events are not routed by type");
+        }
+
+        public Builder setDestroyExecutor(ListenerExecutor destroyExecutor) {
+            this.destroyExecutor = destroyExecutor;
+            return this;
+        }
+
+        @Override
+        public abstract PrimitiveCallbackDispatcher build();
+    }
+}
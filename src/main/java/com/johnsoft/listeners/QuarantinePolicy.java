@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells a {@link CallbackDispatcher} when to quarantine a callback which runs too long or falls behind,
+ * what to do with its deliveries meanwhile, and when to try it again.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public final class QuarantinePolicy {
+    public enum State {
+        HEALTHY,
+        /** deliveries are isolated or shed */
+        QUARANTINED,
+        /** deliveries take the normal route again, the next measured run decides */
+        PROBING
+    }
+
+    public enum Action {
+        /** deliver on the isolated executor, so the callback can not hold up the others */
+        ISOLATE,
+        /** drop the deliveries */
+        SHED
+    }
+
+    private final long executionBudgetNanos;
+    private final int slowInvocationThreshold;
+    private final int maxBacklog;
+    private final long recoveryNanos;
+    private final Action action;
+    private final ListenerExecutor isolatedExecutor;
+    private final QuarantineListener quarantineListener;
+
+    private QuarantinePolicy(Builder builder) {
+        executionBudgetNanos = builder.executionBudgetNanos;
+        slowInvocationThreshold = builder.slowInvocationThreshold;
+        maxBacklog = builder.maxBacklog;
+        recoveryNanos = builder.recoveryNanos;
+        action = builder.action;
+        isolatedExecutor = builder.isolatedExecutor;
+        quarantineListener = builder.quarantineListener;
+    }
+
+    public long getExecutionBudgetNanos() {
+        return executionBudgetNanos;
+    }
+
+    public int getSlowInvocationThreshold() {
+        return slowInvocationThreshold;
+    }
+
+    public int getMaxBacklog() {
+        return maxBacklog;
+    }
+
+    public long getRecoveryNanos() {
+        return recoveryNanos;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public ListenerExecutor getIsolatedExecutor() {
+        return isolatedExecutor;
+    }
+
+    public QuarantineListener getQuarantineListener() {
+        return quarantineListener;
+    }
+
+    public static class Builder {
+        private long executionBudgetNanos;
+        private int slowInvocationThreshold;
+        private int maxBacklog;
+        private long recoveryNanos;
+        private Action action;
+        private ListenerExecutor isolatedExecutor;
+        private QuarantineListener quarantineListener;
+
+        public Builder() {
+            executionBudgetNanos = TimeUnit.MILLISECONDS.toNanos(100L);
+            slowInvocationThreshold = 3;
+            maxBacklog = Integer.MAX_VALUE;
+            recoveryNanos = TimeUnit.SECONDS.toNanos(5L);
+            action = Action.SHED;
+            isolatedExecutor = null;
+            quarantineListener = null;
+        }
+
+        /**
+         * An invocation running longer than this is slow.
+         */
+        public Builder setExecutionBudget(long budget, TimeUnit unit) {
+            this.executionBudgetNanos = unit.toNanos(budget);
+            return this;
+        }
+
+        /**
+         * How many slow invocations in a row quarantine the callback.
+         */
+        public Builder setSlowInvocationThreshold(int slowInvocationThreshold) {
+            this.slowInvocationThreshold = slowInvocationThreshold;
+            return this;
+        }
+
+        /**
+         * More deliveries than this waiting for the callback quarantine it, unlimited by default.
+         */
+        public Builder setMaxBacklog(int maxBacklog) {
+            this.maxBacklog = maxBacklog;
+            return this;
+        }
+
+        /**
+         * How long a quarantine lasts before probing, restarted by each slow run on the isolated executor.
+         */
+        public Builder setRecoveryDelay(long delay, TimeUnit unit) {
+            this.recoveryNanos = unit.toNanos(delay);
+            return this;
+        }
+
+        /**
+         * Isolates on the given executor, which the caller owns and may share between dispatchers.
+         */
+        public Builder isolateOn(ListenerExecutor isolatedExecutor) {
+            if (isolatedExecutor == null) {
+                throw new NullPointerException("isolatedExecutor");
+            }
+            this.action = Action.ISOLATE;
+            this.isolatedExecutor = isolatedExecutor;
+            return this;
+        }
+
+        public Builder shed() {
+            this.action = Action.SHED;
+            this.isolatedExecutor = null;
+            return this;
+        }
+
+        /**
+         * Told about each state change, may be null.
+         */
+        public Builder setQuarantineListener(QuarantineListener quarantineListener) {
+            this.quarantineListener = quarantineListener;
+            return this;
+        }
+
+        public QuarantinePolicy build() {
+            if (executionBudgetNanos <= 0L || slowInvocationThreshold <= 0 || maxBacklog <= 0 || recoveryNanos < 0L) {
+                throw new IllegalArgumentException("Quarantine thresholds out of range");
+            }
+            if (action == Action.ISOLATE && isolatedExecutor == null) {
+                throw new IllegalArgumentException("No isolated executor");
+            }
+            return new QuarantinePolicy(this);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hands the events of many producer threads to one executor through striped staging buffers. Each producer
+ * thread always queues into the same stripe, so producers rarely share a lock, and one reusable Runnable drains
+ * all stripes on the executor. Events of one producer thread are delivered in order, events of different
+ * producers may interleave in any order.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+abstract class StripedNotifyTask implements Runnable, ListenerExecutor.Discardable {
+    private final Stripe[] stripes;
+    private final int mask;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * @param stripeCount rounded up to a power of two
+     */
+    StripedNotifyTask(int stripeCount) {
+        if (stripeCount <= 0 || stripeCount > (1 << 16)) {
+            throw new IllegalArgumentException("stripeCount out of range: " + stripeCount);
+        }
+        final int size = Integer.highestOneBit(stripeCount) == stripeCount
+                ? stripeCount : Integer.highestOneBit(stripeCount) << 1;
+        stripes = new Stripe[size];
+        for (int i = 0; i < size; ++i) {
+            stripes[i] = new Stripe();
+        }
+        mask = size - 1;
+    }
+
+    final int stripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Queues the event in the stripe of the calling thread and hands this task to the executor
+     * if it is not scheduled yet.
+     */
+    final void dispatch(ListenerExecutor executor, Object event) {
+        stripes[stripeIndex(Thread.currentThread().getId())].offer(event);
+        if (!scheduled.get() && scheduled.compareAndSet(false, true)) {
+            boolean accepted = false;
+            try {
+                accepted = executor.execute(this) != null;
+            } finally {
+                if (!accepted) {
+                    reject();
+                }
+            }
+        }
+    }
+
+    @Override
+    public final void run() {
+        for (;;) {
+            for (int i = 0; i < stripes.length; ++i) {
+                drain(stripes[i]);
+            }
+            scheduled.set(false);
+            // an event queued after its stripe was drained saw the flag set and did not schedule
+            if (isEmpty() || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    // dropped by the executor, nothing will drain the queued events
+    @Override
+    public final void discard() {
+        reject();
+    }
+
+    protected abstract void deliver(Object event);
+
+    /**
+     * Called for each event which will never be delivered, because the executor refused this task.
+     */
+    protected void onDropped(Object event) {
+    }
+
+    private void drain(Stripe stripe) {
+        final int count = stripe.swap();
+        final Object[] events = stripe.draining;
+        for (int i = 0; i < count; ++i) {
+            final Object event = events[i];
+            events[i] = null;
+            try {
+                deliver(event);
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void reject() {
+        for (int i = 0; i < stripes.length; ++i) {
+            final int count = stripes[i].swap();
+            final Object[] events = stripes[i].draining;
+            for (int j = 0; j < count; ++j) {
+                final Object event = events[j];
+                events[j] = null;
+                try {
+                    onDropped(event);
+                } catch (Throwable e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        scheduled.set(false);
+    }
+
+    private boolean isEmpty() {
+        for (int i = 0; i < stripes.length; ++i) {
+            if (!stripes[i].isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int stripeIndex(long threadId) {
+        final int hash = (int) (threadId ^ (threadId >>> 32)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Two buffers, producers fill one while the draining thread delivers the other.
+     */
+    private static final class Stripe {
+        private static final int INITIAL_CAPACITY = 16;
+
+        // guarded by this
+        private Object[] filling = new Object[INITIAL_CAPACITY];
+        private int size;
+        // only touched by the draining thread, and swapped under this
+        private Object[] draining = new Object[INITIAL_CAPACITY];
+
+        synchronized void offer(Object event) {
+            if (size == filling.length) {
+                final Object[] grown = new Object[filling.length << 1];
+                System.arraycopy(filling, 0, grown, 0, size);
+                filling = grown;
+            }
+            filling[size++] = event;
+        }
+
+        /**
+         * Moves the queued events to the draining buffer, returns how many.
+         */
+        synchronized int swap() {
+            final Object[] queued = filling;
+            filling = draining;
+            draining = queued;
+            final int count = size;
+            size = 0;
+            return count;
+        }
+
+        synchronized boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
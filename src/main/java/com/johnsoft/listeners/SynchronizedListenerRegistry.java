@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.johnsoft.listeners.AbstractDispatcher.Registration;
+
+/**
+ * Listeners guarded by a monitor, the observer is called while holding it.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+final class SynchronizedListenerRegistry extends ListenerRegistry {
+    private final byte[] listenersLock = new byte[0];
+    // registrations are keyed by themselves, which are equal when their listeners are equal
+    private final Map<Registration, Registration> distinctRegistrations;
+    private final Collection<Registration> registrations;
+    private final boolean snapshotMode;
+    private volatile Snapshot snapshot;
+
+    SynchronizedListenerRegistry(boolean distinct, boolean snapshotMode) {
+        if (distinct) {
+            distinctRegistrations = new LinkedHashMap<>();
+            registrations = distinctRegistrations.values();
+        } else {
+            distinctRegistrations = null;
+            registrations = new LinkedList<>();
+        }
+        this.snapshotMode = snapshotMode;
+        snapshot = snapshotMode ? Snapshot.EMPTY : new Snapshot(null, 0L);
+    }
+
+    @Override
+    boolean add(Registration registration, Observer observer) {
+        synchronized(listenersLock) {
+            if (distinctRegistrations != null) {
+                if (distinctRegistrations.containsKey(registration)) {
+                    return false;
+                }
+                distinctRegistrations.put(registration, registration);
+            } else {
+                registrations.add(registration);
+            }
+            publishSnapshot();
+            observer.onUpdate(AbstractDispatcher.CODE_LISTENER_ADDED, registration.getListener());
+            return true;
+        }
+    }
+
+    @Override
+    Registration[] addAll(Registration[] added, Observer observer) {
+        synchronized(listenersLock) {
+            final List<Registration> result = new ArrayList<>(added.length);
+            for (int i = 0; i < added.length; ++i) {
+                if (distinctRegistrations != null) {
+                    if (distinctRegistrations.containsKey(added[i])) {
+                        continue;
+                    }
+                    distinctRegistrations.put(added[i], added[i]);
+                } else {
+                    registrations.add(added[i]);
+                }
+                result.add(added[i]);
+            }
+            if (!result.isEmpty()) {
+                publishSnapshot();
+                for (int i = 0; i < result.size(); ++i) {
+                    observer.onUpdate(AbstractDispatcher.CODE_LISTENER_ADDED, result.get(i).getListener());
+                }
+            }
+            return result.toArray(NO_REGISTRATIONS);
+        }
+    }
+
+    @Override
+    Registration remove(Listener listener, Observer observer) {
+        synchronized(listenersLock) {
+            final Registration result;
+            if (distinctRegistrations != null) {
+                result = distinctRegistrations.remove(new Registration(listener));
+            } else {
+                result = removeFirst(listener);
+            }
+            if (result != null) {
+                publishSnapshot();
+                observer.onUpdate(AbstractDispatcher.CODE_LISTENER_REMOVED, listener);
+            }
+            return result;
+        }
+    }
+
+    @Override
+    Registration[] removeAll(Listener[] listeners, Observer observer) {
+        synchronized(listenersLock) {
+            final List<Registration> removed = new ArrayList<>(listeners.length);
+            if (distinctRegistrations != null) {
+                for (int i = 0; i < listeners.length; ++i) {
+                    final Registration registration = distinctRegistrations.remove(new Registration(listeners[i]));
+                    if (registration != null) {
+                        removed.add(registration);
+                    }
+                }
+            } else {
+                final Map<Listener, Integer> counts = countListeners(listeners);
+                final Iterator<Registration> iterator = registrations.iterator();
+                while (iterator.hasNext() && !counts.isEmpty()) {
+                    final Registration registration = iterator.next();
+                    if (takeListener(counts, registration.getListener())) {
+                        iterator.remove();
+                        removed.add(registration);
+                    }
+                }
+            }
+            if (!removed.isEmpty()) {
+                publishSnapshot();
+                for (int i = 0; i < removed.size(); ++i) {
+                    observer.onUpdate(AbstractDispatcher.CODE_LISTENER_REMOVED, removed.get(i).getListener());
+                }
+            }
+            return removed.toArray(NO_REGISTRATIONS);
+        }
+    }
+
+    @Override
+    Registration[] removeRegistrations(Registration[] stale, Observer observer) {
+        synchronized(listenersLock) {
+            final List<Registration> removed = new ArrayList<>(stale.length);
+            if (distinctRegistrations != null) {
+                for (int i = 0; i < stale.length; ++i) {
+                    if (distinctRegistrations.get(stale[i]) == stale[i]) {
+                        distinctRegistrations.remove(stale[i]);
+                        removed.add(stale[i]);
+                    }
+                }
+            } else {
+                final Set<Registration> staleSet = Collections.newSetFromMap(new IdentityHashMap<Registration, Boolean>());
+                Collections.addAll(staleSet, stale);
+                final Iterator<Registration> iterator = registrations.iterator();
+                while (iterator.hasNext()) {
+                    final Registration registration = iterator.next();
+                    if (staleSet.contains(registration)) {
+                        iterator.remove();
+                        removed.add(registration);
+                    }
+                }
+            }
+            if (!removed.isEmpty()) {
+                publishSnapshot();
+                for (int i = 0; i < removed.size(); ++i) {
+                    observer.onUpdate(AbstractDispatcher.CODE_LISTENER_REMOVED, removed.get(i).getListener());
+                }
+            }
+            return removed.toArray(NO_REGISTRATIONS);
+        }
+    }
+
+    @Override
+    boolean contains(Listener listener) {
+        synchronized(listenersLock) {
+            if (distinctRegistrations != null) {
+                return distinctRegistrations.containsKey(new Registration(listener));
+            }
+            for (Registration registration : registrations) {
+                if (registration.matches(listener)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @Override
+    Registration[] clear(Observer observer) {
+        synchronized(listenersLock) {
+            final Registration[] result = registrations.toArray(NO_REGISTRATIONS);
+            registrations.clear();
+            publishSnapshot();
+            observer.onUpdate(AbstractDispatcher.CODE_LISTENERS_CLEARED, null);
+            return result;
+        }
+    }
+
+    @Override
+    Registration[] snapshot() {
+        if (snapshotMode) {
+            return snapshot.registrations;
+        }
+        synchronized(listenersLock) {
+            return registrations.toArray(NO_REGISTRATIONS);
+        }
+    }
+
+    @Override
+    long version() {
+        return snapshot.version;
+    }
+
+    @Override
+    Snapshot versionedSnapshot() {
+        if (snapshotMode) {
+            return snapshot;
+        }
+        synchronized(listenersLock) {
+            return new Snapshot(registrations.toArray(NO_REGISTRATIONS), snapshot.version);
+        }
+    }
+
+    // must hold listenersLock
+    private Registration removeFirst(Listener listener) {
+        final Iterator<Registration> iterator = registrations.iterator();
+        while (iterator.hasNext()) {
+            final Registration registration = iterator.next();
+            if (registration.matches(listener)) {
+                iterator.remove();
+                return registration;
+            }
+        }
+        return null;
+    }
+
+    // must hold listenersLock
+    private void publishSnapshot() {
+        final Registration[] registrationArray = snapshotMode ? registrations.toArray(NO_REGISTRATIONS) : null;
+        snapshot = new Snapshot(registrationArray, snapshot.version + 1L);
+    }
+}
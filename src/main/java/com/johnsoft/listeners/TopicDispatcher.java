@@ -0,0 +1,496 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers each event to the callbacks subscribed to its topic, for a great many topics. The callbacks of a topic
+ * are kept as one immutable array in a concurrent map, replaced by compare-and-swap, so publishing reads it without
+ * lock and a topic costs no more than its array. Topics are segments joined by the separator; a pattern may use
+ * {@value #ANY_SEGMENT} for exactly one segment, and {@value #ANY_SEGMENTS} as its last segment for zero or more,
+ * pattern subscriptions are kept in a trie of segments. All topics share one executor, which gets one task per
+ * publish for all its callbacks, a {@link ListenerExecutor.Keyed} task keyed by the topic. An event the executor
+ * refuses or drops is handed to {@link #onEventDropped(String, Object)}.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class TopicDispatcher<E> implements AutoCloseable {
+    public static final String ANY_SEGMENT = "*";
+    public static final String ANY_SEGMENTS = "#";
+
+    private static final Callback<?>[] NO_CALLBACKS = new Callback<?>[0];
+    // collects the callbacks of one publish, left empty after each so it keeps no callback reachable
+    private static final ThreadLocal<ArrayList<Callback<?>>> MATCHED = new ThreadLocal<ArrayList<Callback<?>>>() {
+        @Override
+        protected ArrayList<Callback<?>> initialValue() {
+            return new ArrayList<>();
+        }
+    };
+
+    private final ListenerExecutor executor;
+    private final char separator;
+    private final ConcurrentHashMap<String, Callback<?>[]> topics = new ConcurrentHashMap<>();
+    // guards the shape of the trie and its arrays, readers go without it
+    private final Object patternLock = new Object();
+    private final PatternNode patternRoot = new PatternNode();
+    private volatile int patternCount;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    public TopicDispatcher() {
+        this(new Builder<E>());
+    }
+
+    protected TopicDispatcher(Builder<E> builder) {
+        executor = builder.executor;
+        separator = builder.separator;
+    }
+
+    public Builder<E> newBuilder() {
+        return new Builder<>(this);
+    }
+
+    public final ListenerExecutor getExecutor() {
+        return executor;
+    }
+
+    public final char getSeparator() {
+        return separator;
+    }
+
+    public final boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Returns false if the callback is already subscribed to the topic, or the dispatcher is closed.
+     */
+    public final boolean subscribe(String topic, Callback<? super E> callback) {
+        if (topic == null || callback == null || closed.get()) {
+            return false;
+        }
+        for (;;) {
+            final Callback<?>[] current = topics.get(topic);
+            if (current == null) {
+                if (topics.putIfAbsent(topic, new Callback<?>[] { callback }) == null) {
+                    return subscribed(topic, callback);
+                }
+                continue;
+            }
+            if (indexOf(current, callback) >= 0) {
+                return false;
+            }
+            final Callback<?>[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = callback;
+            if (topics.replace(topic, current, updated)) {
+                return subscribed(topic, callback);
+            }
+        }
+    }
+
+    // a close which cleared the topics before the callback was put leaves it to be taken out here
+    private boolean subscribed(String topic, Callback<? super E> callback) {
+        if (closed.get()) {
+            unsubscribe(topic, callback);
+            return false;
+        }
+        return true;
+    }
+
+    public final boolean unsubscribe(String topic, Callback<? super E> callback) {
+        if (topic == null || callback == null) {
+            return false;
+        }
+        for (;;) {
+            final Callback<?>[] current = topics.get(topic);
+            final int index = current != null ? indexOf(current, callback) : -1;
+            if (index < 0) {
+                return false;
+            }
+            if (current.length == 1) {
+                if (topics.remove(topic, current)) {
+                    return true;
+                }
+                continue;
+            }
+            if (topics.replace(topic, current, without(current, index))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Subscribes the callback to every topic matching the pattern, returns false if it is already subscribed
+     * to the same pattern, or the dispatcher is closed.
+     *
+     * @throws IllegalArgumentException if {@value #ANY_SEGMENTS} is not the last segment
+     */
+    public final boolean subscribePattern(String pattern, Callback<? super E> callback) {
+        if (pattern == null || callback == null || closed.get()) {
+            return false;
+        }
+        final String[] segments = split(pattern);
+        synchronized(patternLock) {
+            if (closed.get()) { // close clears the trie under the lock, after marking closed
+                return false;
+            }
+            final boolean rest = ANY_SEGMENTS.equals(segments[segments.length - 1]);
+            PatternNode node = patternRoot;
+            for (int i = 0; i < (rest ? segments.length - 1 : segments.length); ++i) {
+                PatternNode child = node.children.get(segments[i]);
+                if (child == null) {
+                    child = new PatternNode();
+                    node.children.put(segments[i], child);
+                }
+                node = child;
+            }
+            final Callback<?>[] current = rest ? node.rest : node.exact;
+            if (indexOf(current, callback) >= 0) {
+                return false;
+            }
+            final Callback<?>[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = callback;
+            if (rest) {
+                node.rest = updated;
+            } else {
+                node.exact = updated;
+            }
+            ++patternCount;
+            return true;
+        }
+    }
+
+    public final boolean unsubscribePattern(String pattern, Callback<? super E> callback) {
+        if (pattern == null || callback == null) {
+            return false;
+        }
+        final String[] segments = split(pattern);
+        synchronized(patternLock) {
+            final boolean rest = ANY_SEGMENTS.equals(segments[segments.length - 1]);
+            final int depth = rest ? segments.length - 1 : segments.length;
+            final PatternNode[] path = new PatternNode[depth + 1];
+            path[0] = patternRoot;
+            for (int i = 0; i < depth; ++i) {
+                path[i + 1] = path[i].children.get(segments[i]);
+                if (path[i + 1] == null) {
+                    return false;
+                }
+            }
+            final PatternNode node = path[depth];
+            final Callback<?>[] current = rest ? node.rest : node.exact;
+            final int index = indexOf(current, callback);
+            if (index < 0) {
+                return false;
+            }
+            if (rest) {
+                node.rest = without(current, index);
+            } else {
+                node.exact = without(current, index);
+            }
+            --patternCount;
+            // prune the nodes left empty, a publish still walking them finds nothing
+            for (int i = depth; i > 0 && path[i].isEmpty(); --i) {
+                path[i - 1].children.remove(segments[i - 1]);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Delivers the event to the callbacks of the topic and of the matching patterns, on the executor if set,
+     * otherwise on this thread. Returns how many callbacks it was delivered to, 0 if dropped.
+     */
+    public final int publish(String topic, E event) {
+        if (topic == null || closed.get()) {
+            onEventDropped(topic, event);
+            return 0;
+        }
+        Callback<?>[] callbacks = topics.get(topic);
+        if (patternCount > 0) {
+            callbacks = matchPatterns(topic, callbacks);
+        }
+        if (callbacks == null || callbacks.length == 0) {
+            return 0;
+        }
+        if (executor == null) {
+            deliver(callbacks, event);
+            return callbacks.length;
+        }
+        final TopicDelivery delivery = new TopicDelivery(topic, callbacks, event);
+        boolean accepted = false;
+        try {
+            accepted = executor.execute(delivery) != null;
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+        if (!accepted) {
+            delivery.discard();
+            return 0;
+        }
+        return callbacks.length;
+    }
+
+    /**
+     * Returns how many topics have a callback subscribed without pattern.
+     */
+    public final int getTopicCount() {
+        return topics.size();
+    }
+
+    public final int getSubscriberCount(String topic) {
+        final Callback<?>[] callbacks = topic != null ? topics.get(topic) : null;
+        return callbacks != null ? callbacks.length : 0;
+    }
+
+    public final int getPatternCount() {
+        return patternCount;
+    }
+
+    /**
+     * Drops all subscriptions, and destroys the executor if it is owned by this dispatcher.
+     */
+    public final void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        topics.clear();
+        synchronized(patternLock) {
+            patternRoot.children.clear();
+            patternRoot.exact = NO_CALLBACKS;
+            patternRoot.rest = NO_CALLBACKS;
+            patternCount = 0;
+        }
+        if (executor != null && executor.getMode() == ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER
+                && !executor.isNotInitialized() && !executor.isDestroyed()) {
+            try {
+                executor.destroy();
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Called for an event which was published to no callback, because the dispatcher is closed
+     * or the executor refused it, and for an event the executor dropped before delivering it.
+     */
+    protected void onEventDropped(String topic, E event) {
+    }
+
+    /**
+     * Adds the callbacks of the matching patterns to those of the topic, each callback once however many of its
+     * subscriptions match. Returns the array of the topic itself if no other callback matched.
+     */
+    private Callback<?>[] matchPatterns(String topic, Callback<?>[] callbacks) {
+        final ArrayList<Callback<?>> matched = MATCHED.get();
+        try {
+            if (callbacks != null) {
+                for (int i = 0; i < callbacks.length; ++i) {
+                    matched.add(callbacks[i]);
+                }
+            }
+            match(patternRoot, topic, 0, matched);
+            if (callbacks != null && matched.size() == callbacks.length) {
+                return callbacks;
+            }
+            return matched.toArray(NO_CALLBACKS);
+        } finally {
+            matched.clear();
+        }
+    }
+
+    private void match(PatternNode node, String topic, int start, List<Callback<?>> matched) {
+        addDistinct(matched, node.rest);
+        if (start > topic.length()) { // all segments matched
+            addDistinct(matched, node.exact);
+            return;
+        }
+        int end = topic.indexOf(separator, start);
+        if (end < 0) {
+            end = topic.length();
+        }
+        final PatternNode child = node.children.get(topic.substring(start, end));
+        if (child != null) {
+            match(child, topic, end + 1, matched);
+        }
+        final PatternNode any = node.children.get(ANY_SEGMENT);
+        if (any != null && any != child) {
+            match(any, topic, end + 1, matched);
+        }
+    }
+
+    private String[] split(String pattern) {
+        final List<String> segments = new ArrayList<>();
+        int start = 0;
+        int end;
+        while ((end = pattern.indexOf(separator, start)) >= 0) {
+            segments.add(pattern.substring(start, end));
+            start = end + 1;
+        }
+        segments.add(pattern.substring(start));
+        for (int i = 0; i < segments.size() - 1; ++i) {
+            if (ANY_SEGMENTS.equals(segments.get(i))) {
+                throw new IllegalArgumentException(ANY_SEGMENTS + " must be the last segment: " + pattern);
+            }
+        }
+        return segments.toArray(new String[segments.size()]);
+    }
+
+    // compared by identity, a callback subscribed to the topic and to patterns is called once
+    private static void addDistinct(List<Callback<?>> matched, Callback<?>[] callbacks) {
+        // the callbacks of one subscription list are distinct already
+        final int size = matched.size();
+        for (int i = 0; i < callbacks.length; ++i) {
+            if (!containsIdentical(matched, size, callbacks[i])) {
+                matched.add(callbacks[i]);
+            }
+        }
+    }
+
+    private static boolean containsIdentical(List<Callback<?>> matched, int size, Callback<?> callback) {
+        for (int i = 0; i < size; ++i) {
+            if (matched.get(i) == callback) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void deliver(Callback<?>[] callbacks, Object event) {
+        for (int i = 0; i < callbacks.length; ++i) {
+            @SuppressWarnings("unchecked") // subscribed as a Callback<? super E>, and the event is an E
+            final Callback<Object> callback = (Callback<Object>) callbacks[i];
+            try {
+                callback.on(event);
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static int indexOf(Callback<?>[] callbacks, Callback<?> callback) {
+        for (int i = 0; i < callbacks.length; ++i) {
+            if (callbacks[i].equals(callback)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Callback<?>[] without(Callback<?>[] callbacks, int index) {
+        final Callback<?>[] updated = new Callback<?>[callbacks.length - 1];
+        System.arraycopy(callbacks, 0, updated, 0, index);
+        System.arraycopy(callbacks, index + 1, updated, index, callbacks.length - index - 1);
+        return updated;
+    }
+
+    /**
+     * A segment of patterns, its children are keyed by the next segment, {@value #ANY_SEGMENT} included.
+     */
+    private static final class PatternNode {
+        final ConcurrentHashMap<String, PatternNode> children = new ConcurrentHashMap<>();
+        // callbacks of the patterns ending at this node
+        volatile Callback<?>[] exact = NO_CALLBACKS;
+        // callbacks of the patterns ending with ANY_SEGMENTS after this node
+        volatile Callback<?>[] rest = NO_CALLBACKS;
+
+        boolean isEmpty() {
+            return exact.length == 0 && rest.length == 0 && children.isEmpty();
+        }
+    }
+
+    private final class TopicDelivery implements Runnable, ListenerExecutor.Keyed, ListenerExecutor.Discardable {
+        private final String topic;
+        private final Callback<?>[] callbacks;
+        private final E event;
+        // a refused task may also be discarded by the executor
+        private boolean dropped;
+
+        TopicDelivery(String topic, Callback<?>[] callbacks, E event) {
+            this.topic = topic;
+            this.callbacks = callbacks;
+            this.event = event;
+        }
+
+        @Override
+        public Object partitionKey() {
+            return topic;
+        }
+
+        @Override
+        public void run() {
+            deliver(callbacks, event);
+        }
+
+        @Override
+        public void discard() {
+            synchronized(this) {
+                if (dropped) {
+                    return;
+                }
+                dropped = true;
+            }
+            onEventDropped(topic, event);
+        }
+    }
+
+    public static class Builder<E> {
+        private ListenerExecutor executor;
+        private char separator;
+
+        public Builder() {
+            executor = null;
+            separator = '.';
+        }
+
+        protected Builder(TopicDispatcher<E> dispatcher) {
+            executor = dispatcher.executor;
+            separator = dispatcher.separator;
+        }
+
+        public ListenerExecutor getExecutor() {
+            return executor;
+        }
+
+        /**
+         * The executor shared by all topics, null to deliver on the publishing thread. With a partitioning
+         * executor each topic is delivered in order.
+         */
+        public Builder<E> setExecutor(ListenerExecutor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public char getSeparator() {
+            return separator;
+        }
+
+        public Builder<E> setSeparator(char separator) {
+            this.separator = separator;
+            return this;
+        }
+
+        public TopicDispatcher<E> build() {
+            return new TopicDispatcher<>(this);
+        }
+    }
+}
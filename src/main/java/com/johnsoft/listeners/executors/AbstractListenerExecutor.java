@@ -16,6 +16,8 @@
  */
 package com.johnsoft.listeners.executors;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import com.johnsoft.listeners.ListenerExecutor;
 
 /**
@@ -27,13 +29,42 @@ public abstract class AbstractListenerExecutor implements ListenerExecutor {
     private static final int STATE_ALIVE = 1;
     private static final int STATE_DESTROYED = -1;
 
+    protected static final CancelControler COMPLETED = new CancelControler() {
+        @Override
+        public void cancel() {
+        }
+    };
+
     private final Mode mode;
     private final boolean isCoverUnexectuedMode;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMillis;
+    private final OverflowListener overflowListener;
+    private final AtomicLong overflowCount = new AtomicLong();
+    private final AtomicLong droppedTaskCount = new AtomicLong();
     protected volatile int state;
 
     public AbstractListenerExecutor(Mode mode, boolean isCoverUnexectuedMode) {
+        this(mode, isCoverUnexectuedMode, OverflowPolicy.DROP_NEWEST, 0L, null);
+    }
+
+    /**
+     * @param blockTimeoutMillis only used by {@link OverflowPolicy#BLOCK}
+     * @param overflowListener may be null
+     */
+    public AbstractListenerExecutor(Mode mode, boolean isCoverUnexectuedMode, OverflowPolicy overflowPolicy,
+                                    long blockTimeoutMillis, OverflowListener overflowListener) {
+        if (overflowPolicy == null) {
+            throw new NullPointerException("overflowPolicy");
+        }
+        if (overflowPolicy == OverflowPolicy.CONFLATE && mode != Mode.FOR_SINGLE_LISTENER) {
+            throw new IllegalArgumentException("CONFLATE drops the waiting tasks of every listener, mode: " + mode);
+        }
         this.mode = mode;
         this.isCoverUnexectuedMode = isCoverUnexectuedMode;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+        this.overflowListener = overflowListener;
         this.state = STATE_NOT_INITIALIZED;
     }
 
@@ -104,4 +135,57 @@ public abstract class AbstractListenerExecutor implements ListenerExecutor {
     public final boolean isCoverUnexectuedMode() {
         return isCoverUnexectuedMode;
     }
+
+    public final OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public final long getBlockTimeoutMillis() {
+        return blockTimeoutMillis;
+    }
+
+    /**
+     * Returns how many times a task did not fit and the overflow policy was applied.
+     */
+    public final long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    /**
+     * Returns how many tasks were lost by applying the overflow policy.
+     */
+    public final long getDroppedTaskCount() {
+        return droppedTaskCount.get();
+    }
+
+    /**
+     * Call for each waiting task dropped by the overflow policy, then {@link #onOverflow(int)} once.
+     */
+    protected final void onTaskDropped(Runnable task) {
+        discard(task);
+    }
+
+    protected final void onOverflow(int droppedTasks) {
+        overflowCount.incrementAndGet();
+        if (droppedTasks > 0) {
+            droppedTaskCount.addAndGet(droppedTasks);
+        }
+        if (overflowListener != null) {
+            try {
+                overflowListener.onOverflow(this, overflowPolicy, droppedTasks);
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static void discard(Runnable task) {
+        if (task instanceof Discardable) {
+            try {
+                ((Discardable) task).discard();
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+        }
+    }
 }
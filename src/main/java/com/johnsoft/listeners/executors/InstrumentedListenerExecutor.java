@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.executors;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.metrics.ExecutorMetrics;
+
+/**
+ * Records queue depth, rejections and task latencies of the wrapped executor.
+ * Each task is wrapped in a small Runnable, so only wrap the executors to be observed.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class InstrumentedListenerExecutor extends ForwardingListenerExecutor {
+    private final ExecutorMetrics metrics = new ExecutorMetrics();
+
+    public InstrumentedListenerExecutor(ListenerExecutor listenerExecutor) {
+        super(listenerExecutor);
+    }
+
+    public final ExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public CancelControler execute(Runnable runnable) {
+        final InstrumentedTask task = runnable instanceof Keyed ? new KeyedInstrumentedTask(runnable, metrics)
+                : new InstrumentedTask(runnable, metrics);
+        metrics.recordSubmitted();
+        CancelControler cancelControler = null;
+        try {
+            cancelControler = super.execute(task);
+        } finally {
+            if (cancelControler == null && task.settle()) {
+                metrics.recordRejected();
+            }
+        }
+        return cancelControler;
+    }
+
+    private static class InstrumentedTask implements Runnable, Discardable {
+        final Runnable runnable;
+        private final ExecutorMetrics metrics;
+        private final long submitNanos;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        InstrumentedTask(Runnable runnable, ExecutorMetrics metrics) {
+            this.runnable = runnable;
+            this.metrics = metrics;
+            this.submitNanos = System.nanoTime();
+        }
+
+        // true only for the first of started, discarded or rejected
+        boolean settle() {
+            return settled.compareAndSet(false, true);
+        }
+
+        @Override
+        public void run() {
+            final long start = System.nanoTime();
+            if (settle()) {
+                metrics.recordStarted(start - submitNanos);
+            }
+            try {
+                runnable.run();
+            } finally {
+                metrics.recordCompleted(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void discard() {
+            if (settle()) {
+                metrics.recordDiscarded();
+            }
+            if (runnable instanceof Discardable) {
+                ((Discardable) runnable).discard();
+            }
+        }
+    }
+
+    // keeps the key of the wrapped runnable visible to a partitioning executor behind this one
+    private static final class KeyedInstrumentedTask extends InstrumentedTask implements Keyed {
+        KeyedInstrumentedTask(Runnable runnable, ExecutorMetrics metrics) {
+            super(runnable, metrics);
+        }
+
+        @Override
+        public Object partitionKey() {
+            return ((Keyed) runnable).partitionKey();
+        }
+    }
+}
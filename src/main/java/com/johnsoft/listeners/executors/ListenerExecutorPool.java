@@ -0,0 +1,279 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.executors;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.johnsoft.listeners.Listener;
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.ListenerExecutorFactory;
+
+/**
+ * Recycles per-listener executors, so adding a listener takes a warm idle executor instead of creating
+ * and starting a new one, and removing it parks the executor for the next listener.
+ * Idle executors beyond the minimum are destroyed after the idle timeout, checked on each create and release
+ * or by {@link #evictIdle()}. Use it as the per executor factory of a
+ * {@link com.johnsoft.listeners.CallbackDispatcher}.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class ListenerExecutorPool implements ListenerExecutorFactory {
+    private final Class<? extends ListenerExecutor> executorClass;
+    private final int minIdle;
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+    private final byte[] poolLock = new byte[0];
+    // most recently released last
+    private final ArrayDeque<IdleExecutor> idleExecutors = new ArrayDeque<>();
+    private final Set<ListenerExecutor> usedExecutors =
+            Collections.newSetFromMap(new IdentityHashMap<ListenerExecutor, Boolean>());
+    private int creatingCount;
+    private long createdCount;
+    private long reusedCount;
+    private boolean destroyed;
+
+    /**
+     * @param executorClass instantiated by {@link #newExecutor()}, may be null if a subclass overrides it
+     * @param minIdle idle executors kept however long they are idle
+     * @param maxSize at most this many executors idle or in use, beyond it {@link #create(Listener)} returns null
+     *                and the listener uses the dispatcher's default executor
+     */
+    public ListenerExecutorPool(Class<? extends ListenerExecutor> executorClass, int minIdle, int maxSize,
+                                long idleTimeout, TimeUnit unit) {
+        if (minIdle < 0 || maxSize <= 0 || minIdle > maxSize || idleTimeout < 0L) {
+            throw new IllegalArgumentException("Pool size or timeout out of range");
+        }
+        this.executorClass = executorClass;
+        this.minIdle = minIdle;
+        this.maxSize = maxSize;
+        this.idleTimeoutNanos = unit.toNanos(idleTimeout);
+    }
+
+    /**
+     * Creates and initializes executors until the given number are idle, at most up to the size cap.
+     */
+    public void prestart(int idleCount) {
+        for (;;) {
+            synchronized(poolLock) {
+                if (destroyed || idleExecutors.size() >= idleCount || size() >= maxSize) {
+                    return;
+                }
+                ++creatingCount;
+            }
+            final ListenerExecutor executor = newReservedExecutor();
+            synchronized(poolLock) {
+                --creatingCount;
+                if (!destroyed) {
+                    idleExecutors.addLast(new IdleExecutor(executor, System.nanoTime()));
+                    continue;
+                }
+            }
+            destroyQuietly(executor);
+            return;
+        }
+    }
+
+    @Override
+    public ListenerExecutor create(Listener listener) {
+        final IdleExecutor[] evicted;
+        final IdleExecutor idle;
+        boolean reserved = false;
+        synchronized(poolLock) {
+            if (destroyed) {
+                throw new IllegalStateException("Pool destroyed!");
+            }
+            evicted = pollEvictable(System.nanoTime());
+            idle = idleExecutors.pollLast();
+            if (idle != null) {
+                ++reusedCount;
+                usedExecutors.add(idle.executor);
+            } else if (size() < maxSize) {
+                ++creatingCount;
+                reserved = true;
+            }
+        }
+        destroyQuietly(evicted);
+        if (idle != null) {
+            return idle.executor;
+        }
+        if (!reserved) {
+            return null;
+        }
+        // started outside the lock, it may take a while
+        final ListenerExecutor executor = newReservedExecutor();
+        synchronized(poolLock) {
+            --creatingCount;
+            if (!destroyed) {
+                usedExecutors.add(executor);
+                return executor;
+            }
+        }
+        destroyQuietly(executor);
+        throw new IllegalStateException("Pool destroyed!");
+    }
+
+    @Override
+    public void release(Listener listener, ListenerExecutor executor) {
+        final long now = System.nanoTime();
+        final IdleExecutor[] evicted;
+        synchronized(poolLock) {
+            if (!usedExecutors.remove(executor)) {
+                return; // not from this pool, or released twice
+            }
+            if (!destroyed && executor.isAlive()) {
+                idleExecutors.addLast(new IdleExecutor(executor, now));
+                executor = null;
+            }
+            evicted = pollEvictable(now);
+        }
+        destroyQuietly(executor);
+        destroyQuietly(evicted);
+    }
+
+    /**
+     * Destroys the executors idle for longer than the idle timeout, keeping the minimum idle ones.
+     */
+    public void evictIdle() {
+        final IdleExecutor[] evicted;
+        synchronized(poolLock) {
+            evicted = pollEvictable(System.nanoTime());
+        }
+        destroyQuietly(evicted);
+    }
+
+    /**
+     * Destroys the idle executors, executors released later are destroyed instead of pooled.
+     */
+    public void destroy() {
+        final IdleExecutor[] idle;
+        synchronized(poolLock) {
+            destroyed = true;
+            idle = idleExecutors.toArray(new IdleExecutor[idleExecutors.size()]);
+            idleExecutors.clear();
+        }
+        destroyQuietly(idle);
+    }
+
+    public int getIdleCount() {
+        synchronized(poolLock) {
+            return idleExecutors.size();
+        }
+    }
+
+    public int getUsedCount() {
+        synchronized(poolLock) {
+            return usedExecutors.size();
+        }
+    }
+
+    public long getCreatedCount() {
+        synchronized(poolLock) {
+            return createdCount;
+        }
+    }
+
+    public long getReusedCount() {
+        synchronized(poolLock) {
+            return reusedCount;
+        }
+    }
+
+    /**
+     * Returns a new executor for a single listener, by default an instance of the executor class.
+     */
+    protected ListenerExecutor newExecutor() {
+        try {
+            return executorClass.newInstance();
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // the caller reserved it in creatingCount, and gives the reservation back unless this fails
+    private ListenerExecutor newReservedExecutor() {
+        boolean created = false;
+        try {
+            final ListenerExecutor executor = newExecutor();
+            if (executor.isNotInitialized()) {
+                executor.initialize();
+            }
+            synchronized(poolLock) {
+                ++createdCount;
+            }
+            created = true;
+            return executor;
+        } finally {
+            if (!created) {
+                synchronized(poolLock) {
+                    --creatingCount;
+                }
+            }
+        }
+    }
+
+    // must hold poolLock, oldest first
+    private IdleExecutor[] pollEvictable(long now) {
+        int count = 0;
+        for (IdleExecutor idle : idleExecutors) {
+            if (idleExecutors.size() - count <= minIdle || now - idle.idleSince < idleTimeoutNanos) {
+                break;
+            }
+            ++count;
+        }
+        final IdleExecutor[] evicted = new IdleExecutor[count];
+        for (int i = 0; i < count; ++i) {
+            evicted[i] = idleExecutors.pollFirst();
+        }
+        return evicted;
+    }
+
+    // must hold poolLock
+    private int size() {
+        return idleExecutors.size() + usedExecutors.size() + creatingCount;
+    }
+
+    private static void destroyQuietly(IdleExecutor[] idle) {
+        for (int i = 0; i < idle.length; ++i) {
+            destroyQuietly(idle[i].executor);
+        }
+    }
+
+    private static void destroyQuietly(ListenerExecutor executor) {
+        try {
+            if (executor != null && !executor.isNotInitialized() && !executor.isDestroyed()) {
+                executor.destroy();
+            }
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static final class IdleExecutor {
+        final ListenerExecutor executor;
+        final long idleSince;
+
+        IdleExecutor(ListenerExecutor executor, long idleSince) {
+            this.executor = executor;
+            this.idleSince = idleSince;
+        }
+    }
+}
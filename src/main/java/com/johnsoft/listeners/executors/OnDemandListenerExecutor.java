@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.executors;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.johnsoft.listeners.ListenerExecutor;
+
+/**
+ * Starts the wrapped executor on the first execute, destroys it once nothing was executed for the idle timeout
+ * and nothing is in flight, and starts a new one on the next execute, so an idle listener holds no thread.
+ * Each task is wrapped to know when it is done. Tasks run in order as long as the wrapped executor keeps order,
+ * a new wrapped executor is only started after the old one finished its tasks.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class OnDemandListenerExecutor implements ListenerExecutor {
+    private static final int STATE_NOT_INITIALIZED = 0;
+    private static final int STATE_ALIVE = 1;
+    private static final int STATE_DESTROYED = -1;
+
+    private final Class<? extends ListenerExecutor> delegateClass;
+    private final Mode mode;
+    private final boolean isCoverUnexectuedMode;
+    private final long idleTimeoutNanos;
+    private final byte[] delegateLock = new byte[0];
+    private final Runnable idleCheck = new Runnable() {
+        @Override
+        public void run() {
+            checkIdle();
+        }
+    };
+    private volatile int state;
+    // guarded by delegateLock
+    private ListenerExecutor delegate;
+    private int inFlightCount;
+    private long lastExecuteNanos;
+    private long startCount;
+
+    /**
+     * @param delegateClass instantiated by {@link #newDelegate()}, may be null if a subclass overrides it
+     * @param isCoverUnexectuedMode must match the executors created by {@link #newDelegate()}
+     */
+    public OnDemandListenerExecutor(Class<? extends ListenerExecutor> delegateClass, Mode mode,
+                                    boolean isCoverUnexectuedMode, long idleTimeout, TimeUnit unit) {
+        if (idleTimeout <= 0L) {
+            throw new IllegalArgumentException("idleTimeout must be positive");
+        }
+        this.delegateClass = delegateClass;
+        this.mode = mode;
+        this.isCoverUnexectuedMode = isCoverUnexectuedMode;
+        this.idleTimeoutNanos = unit.toNanos(idleTimeout);
+        this.state = STATE_NOT_INITIALIZED;
+    }
+
+    @Override
+    public boolean isNotInitialized() {
+        return state == STATE_NOT_INITIALIZED;
+    }
+
+    /**
+     * Only marks this alive, the wrapped executor is started on the first execute.
+     */
+    @Override
+    public void initialize() {
+        synchronized(delegateLock) {
+            if (state != STATE_NOT_INITIALIZED) {
+                throw new IllegalStateException("Can't re-initialize!");
+            }
+            state = STATE_ALIVE;
+        }
+    }
+
+    @Override
+    public boolean isAlive() {
+        return state == STATE_ALIVE;
+    }
+
+    @Override
+    public void destroy() {
+        final ListenerExecutor stopped;
+        synchronized(delegateLock) {
+            if (state == STATE_DESTROYED) {
+                return;
+            }
+            if (state == STATE_NOT_INITIALIZED) {
+                throw new IllegalStateException("Not initialize!");
+            }
+            state = STATE_DESTROYED;
+            stopped = takeDelegate();
+        }
+        destroyDelegate(stopped);
+    }
+
+    @Override
+    public boolean isDestroyed() {
+        return state == STATE_DESTROYED;
+    }
+
+    @Override
+    public CancelControler execute(Runnable runnable) {
+        final ListenerExecutor current;
+        synchronized(delegateLock) {
+            if (state != STATE_ALIVE) {
+                throw new IllegalStateException("Not alive!");
+            }
+            if (delegate == null) {
+                delegate = newDelegate();
+                if (delegate.isNotInitialized()) {
+                    delegate.initialize();
+                }
+                ++startCount;
+                IdleReaper.SCHEDULER.schedule(idleCheck, idleTimeoutNanos, TimeUnit.NANOSECONDS);
+            }
+            current = delegate;
+            ++inFlightCount;
+            lastExecuteNanos = System.nanoTime();
+        }
+        final TrackedTask task = runnable instanceof Keyed ? new KeyedTrackedTask(runnable)
+                : new TrackedTask(runnable);
+        CancelControler cancelControler = null;
+        try {
+            cancelControler = current.execute(task);
+        } finally {
+            if (cancelControler == null) {
+                task.done();
+            }
+        }
+        return cancelControler;
+    }
+
+    @Override
+    public Mode getMode() {
+        return mode;
+    }
+
+    @Override
+    public boolean isCoverUnexectuedMode() {
+        return isCoverUnexectuedMode;
+    }
+
+    /**
+     * Returns how many times a wrapped executor was started.
+     */
+    public long getStartCount() {
+        synchronized(delegateLock) {
+            return startCount;
+        }
+    }
+
+    public boolean isStarted() {
+        synchronized(delegateLock) {
+            return delegate != null;
+        }
+    }
+
+    /**
+     * Returns a new executor to wrap, by default an instance of the delegate class.
+     */
+    protected ListenerExecutor newDelegate() {
+        try {
+            return delegateClass.newInstance();
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void checkIdle() {
+        final ListenerExecutor stopped;
+        synchronized(delegateLock) {
+            if (delegate == null) {
+                return;
+            }
+            final long idleNanos = System.nanoTime() - lastExecuteNanos;
+            if (inFlightCount > 0 || idleNanos < idleTimeoutNanos) {
+                final long delay = inFlightCount > 0 ? idleTimeoutNanos : idleTimeoutNanos - idleNanos;
+                IdleReaper.SCHEDULER.schedule(idleCheck, delay, TimeUnit.NANOSECONDS);
+                return;
+            }
+            stopped = takeDelegate();
+        }
+        destroyDelegate(stopped);
+    }
+
+    // must hold delegateLock
+    private ListenerExecutor takeDelegate() {
+        final ListenerExecutor taken = delegate;
+        if (taken != null) {
+            delegate = null;
+        }
+        return taken;
+    }
+
+    private static void destroyDelegate(ListenerExecutor stopped) {
+        try {
+            if (stopped != null && !stopped.isDestroyed()) {
+                stopped.destroy();
+            }
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    private class TrackedTask implements Runnable, Discardable {
+        final Runnable runnable;
+        private boolean done;
+
+        TrackedTask(Runnable runnable) {
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            try {
+                runnable.run();
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void discard() {
+            done();
+            if (runnable instanceof Discardable) {
+                ((Discardable) runnable).discard();
+            }
+        }
+
+        void done() {
+            synchronized(delegateLock) {
+                if (!done) {
+                    done = true;
+                    --inFlightCount;
+                }
+            }
+        }
+    }
+
+    // keeps the key of the wrapped runnable visible to a partitioning executor wrapped by this one
+    private final class KeyedTrackedTask extends TrackedTask implements Keyed {
+        KeyedTrackedTask(Runnable runnable) {
+            super(runnable);
+        }
+
+        @Override
+        public Object partitionKey() {
+            return ((Keyed) runnable).partitionKey();
+        }
+    }
+
+    private static final class IdleReaper {
+        static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        final Thread thread = new Thread(runnable, "listeners-idle-reaper");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.executors;
+
+import com.johnsoft.listeners.ListenerExecutor;
+
+/**
+ * Told on the producer thread each time a bounded executor overflows, so producers can throttle themselves.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public interface OverflowListener {
+    /**
+     * @param droppedTasks how many tasks were lost by applying the policy, 0 if the task waited or ran on the caller
+     */
+    void onOverflow(ListenerExecutor executor, OverflowPolicy policy, int droppedTasks);
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.executors;
+
+/**
+ * What a bounded executor does with a task when its queue is full.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public enum OverflowPolicy {
+    /** wait for room up to the block timeout, then drop the new task */
+    BLOCK,
+    /** drop the oldest waiting tasks until the new task fits */
+    DROP_OLDEST,
+    /** drop the new task, execute returns null */
+    DROP_NEWEST,
+    /** run the new task on the calling thread */
+    CALLER_RUNS,
+    /**
+     * drop all waiting tasks and keep only the new one, only allowed in FOR_SINGLE_LISTENER mode
+     * so one listener never drops the events of another
+     */
+    CONFLATE
+}
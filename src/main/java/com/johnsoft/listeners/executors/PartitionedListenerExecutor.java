@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.executors;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.johnsoft.listeners.ListenerExecutor;
+
+/**
+ * A fixed set of serial lanes, each with its own thread. Tasks of the same key run one by one in FIFO order on
+ * the lane the key hashes to, tasks of different keys run in parallel. Runnables implementing
+ * {@link com.johnsoft.listeners.ListenerExecutor.Keyed} are
+ * routed by their key, other runnables are spread over the lanes round robin.
+ * <p>
+ * With hot key rebalancing each key is placed on a lane when it has no pending task, and if its hash lane is
+ * much busier than the least busy lane it is placed there instead. A key is never moved while it has pending
+ * tasks, so the order per key holds, and keys sharing a lane with a hot key move away between their bursts.
+ * This tracks every pending task, so it costs one small object per task.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public final class PartitionedListenerExecutor extends AbstractListenerExecutor {
+    // pending tasks a hash lane may have beyond twice the least busy lane before keys are placed elsewhere
+    private static final int REBALANCE_SLACK = 8;
+
+    private final ListenerExecutor[] lanes;
+    private final AtomicInteger nextLane = new AtomicInteger();
+    // null unless rebalancing
+    private final AtomicIntegerArray lanePending;
+    private final ConcurrentMap<Object, KeyState> keyStates;
+    private final AtomicLong rebalancedCount = new AtomicLong();
+
+    public PartitionedListenerExecutor(int laneCount, Mode mode, boolean rebalanceHotKeys) {
+        super(mode, false);
+        if (laneCount <= 0) {
+            throw new IllegalArgumentException("laneCount must be positive");
+        }
+        lanes = new ListenerExecutor[laneCount];
+        for (int i = 0; i < laneCount; ++i) {
+            lanes[i] = new TaskQueueListenerExecutor(new LinkedBlockingQueue<Runnable>(),
+                    Mode.FOR_SINGLE_DISPATCHER, false);
+        }
+        if (rebalanceHotKeys) {
+            lanePending = new AtomicIntegerArray(laneCount);
+            keyStates = new ConcurrentHashMap<>();
+        } else {
+            lanePending = null;
+            keyStates = null;
+        }
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    public boolean isRebalanceHotKeys() {
+        return keyStates != null;
+    }
+
+    /**
+     * Returns how many times a key was placed on another lane than the one it hashes to.
+     */
+    public long getRebalancedCount() {
+        return rebalancedCount.get();
+    }
+
+    /**
+     * Returns the pending tasks of a lane, always 0 without rebalancing.
+     */
+    public int getPendingCount(int lane) {
+        return lanePending != null ? lanePending.get(lane) : 0;
+    }
+
+    /**
+     * Runs the runnable after the tasks of the same key executed before it, a null key is a key too.
+     */
+    public CancelControler execute(Object key, Runnable runnable) {
+        if (!isAlive()) {
+            throw new IllegalStateException("Not alive!");
+        }
+        if (runnable == null) {
+            throw new NullPointerException("runnable");
+        }
+        try {
+            if (keyStates == null) {
+                return lanes[hashLane(key)].execute(runnable);
+            }
+            return executeTracked(key, runnable);
+        } catch (IllegalStateException e) { // the lane is no longer alive, as when destroyed meanwhile
+            return null;
+        }
+    }
+
+    @Override
+    protected boolean doInitialize() {
+        for (int i = 0; i < lanes.length; ++i) {
+            lanes[i].initialize();
+        }
+        return true;
+    }
+
+    @Override
+    protected void doDestroy() {
+        for (int i = 0; i < lanes.length; ++i) {
+            try {
+                lanes[i].destroy();
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    @Override
+    protected CancelControler doExecute(Runnable runnable) {
+        if (runnable instanceof Keyed) {
+            return execute(((Keyed) runnable).partitionKey(), runnable);
+        }
+        final int lane = (nextLane.getAndIncrement() & Integer.MAX_VALUE) % lanes.length;
+        return lanes[lane].execute(runnable);
+    }
+
+    private CancelControler executeTracked(Object key, Runnable runnable) {
+        final Object mapKey = key != null ? key : KeyState.NULL_KEY;
+        for (;;) {
+            KeyState keyState = keyStates.get(mapKey);
+            if (keyState == null) {
+                final KeyState created = new KeyState(mapKey);
+                keyState = keyStates.putIfAbsent(mapKey, created);
+                if (keyState == null) {
+                    keyState = created;
+                }
+            }
+            final int lane;
+            synchronized(keyState) {
+                if (keyState.removed) {
+                    continue; // went idle meanwhile, take the new state
+                }
+                if (keyState.pending == 0) {
+                    keyState.lane = placeKey(key);
+                }
+                ++keyState.pending;
+                lane = keyState.lane;
+            }
+            lanePending.incrementAndGet(lane);
+            final TrackedTask task = new TrackedTask(runnable, keyState, lane);
+            CancelControler cancelControler = null;
+            try {
+                cancelControler = lanes[lane].execute(task);
+            } finally {
+                if (cancelControler == null) {
+                    task.done();
+                }
+            }
+            return cancelControler;
+        }
+    }
+
+    private int placeKey(Object key) {
+        final int hashLane = hashLane(key);
+        int leastLane = hashLane;
+        int leastPending = lanePending.get(hashLane);
+        final int hashPending = leastPending;
+        if (hashPending <= REBALANCE_SLACK) {
+            return hashLane;
+        }
+        for (int i = 0; i < lanes.length; ++i) {
+            final int pending = lanePending.get(i);
+            if (pending < leastPending) {
+                leastPending = pending;
+                leastLane = i;
+            }
+        }
+        if (hashPending > (leastPending << 1) + REBALANCE_SLACK) {
+            rebalancedCount.incrementAndGet();
+            return leastLane;
+        }
+        return hashLane;
+    }
+
+    private int hashLane(Object key) {
+        if (key == null) {
+            return 0;
+        }
+        final int hash = key.hashCode() * 0x9E3779B9;
+        return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % lanes.length;
+    }
+
+    private static final class KeyState {
+        static final Object NULL_KEY = new Object();
+
+        final Object mapKey;
+        // guarded by this
+        int lane;
+        int pending;
+        boolean removed;
+
+        KeyState(Object mapKey) {
+            this.mapKey = mapKey;
+        }
+    }
+
+    private final class TrackedTask implements Runnable, Discardable {
+        private final Runnable runnable;
+        private final KeyState keyState;
+        private final int lane;
+        // guarded by keyState
+        private boolean settled;
+
+        TrackedTask(Runnable runnable, KeyState keyState, int lane) {
+            this.runnable = runnable;
+            this.keyState = keyState;
+            this.lane = lane;
+        }
+
+        @Override
+        public void run() {
+            try {
+                runnable.run();
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void discard() {
+            done();
+            if (runnable instanceof Discardable) {
+                ((Discardable) runnable).discard();
+            }
+        }
+
+        void done() {
+            synchronized(keyState) {
+                if (settled) {
+                    return;
+                }
+                settled = true;
+                if (--keyState.pending == 0) {
+                    keyState.removed = true;
+                    keyStates.remove(keyState.mapKey, keyState);
+                }
+            }
+            lanePending.decrementAndGet(lane);
+        }
+    }
+}
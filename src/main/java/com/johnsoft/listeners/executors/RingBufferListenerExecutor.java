@@ -0,0 +1,282 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.executors;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import com.johnsoft.listeners.ListenerExecutor;
+
+/**
+ * Runs tasks on one consumer thread from a preallocated ring, producers claim slots by sequence
+ * and publish into them, so no node is allocated and no lock is taken per task.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public final class RingBufferListenerExecutor extends AbstractListenerExecutor {
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+
+    private final AtomicReferenceArray<Runnable> slots;
+    // per slot, the highest sequence cancelled in it, the consumer skips the task of that sequence
+    private final AtomicLongArray cancelledSequences;
+    private final int mask;
+    private final AtomicLong claimSequence = new AtomicLong();
+    private final AtomicLong consumeSequence = new AtomicLong();
+    private final WaitStrategy waitStrategy;
+    private final ConsumerThread thread;
+    private volatile boolean parked;
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    public RingBufferListenerExecutor(int capacity, WaitStrategy waitStrategy, Mode mode,
+                                      boolean isCoverUnexectuedMode) {
+        this(capacity, waitStrategy, mode, isCoverUnexectuedMode, OverflowPolicy.DROP_NEWEST, 0L, null);
+    }
+
+    /**
+     * Only the consumer frees slots, so the policy can be BLOCK, DROP_NEWEST or CALLER_RUNS.
+     */
+    public RingBufferListenerExecutor(int capacity, WaitStrategy waitStrategy, Mode mode,
+                                      boolean isCoverUnexectuedMode, OverflowPolicy overflowPolicy,
+                                      long blockTimeoutMillis, OverflowListener overflowListener) {
+        super(mode, isCoverUnexectuedMode, overflowPolicy, blockTimeoutMillis, overflowListener);
+        if (overflowPolicy == OverflowPolicy.DROP_OLDEST || overflowPolicy == OverflowPolicy.CONFLATE) {
+            throw new IllegalArgumentException("Unsupported overflow policy: " + overflowPolicy);
+        }
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        if (waitStrategy == null) {
+            throw new NullPointerException("waitStrategy");
+        }
+        final int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.cancelledSequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; ++i) {
+            cancelledSequences.set(i, -1L);
+        }
+        this.mask = size - 1;
+        this.waitStrategy = waitStrategy;
+        this.thread = new ConsumerThread();
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    @Override
+    protected boolean doInitialize() {
+        thread.start();
+        return true;
+    }
+
+    /**
+     * Tasks still in the ring are dropped, unless the consumer is stuck in a task and still owns the ring.
+     */
+    @Override
+    protected void doDestroy() {
+        thread.interrupt();
+        try {
+            thread.join(1000L);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        if (thread.isAlive()) {
+            return;
+        }
+        final long claimed = claimSequence.get();
+        for (long sequence = consumeSequence.get(); sequence < claimed; ++sequence) {
+            final int index = (int) sequence & mask;
+            final Runnable task = slots.getAndSet(index, null);
+            if (task != null && cancelledSequences.get(index) != sequence) {
+                onTaskDropped(task);
+            }
+        }
+        consumeSequence.set(claimed);
+    }
+
+    @Override
+    protected CancelControler doExecute(Runnable runnable) {
+        if (runnable == null) {
+            throw new NullPointerException("runnable");
+        }
+        long sequence = claim();
+        if (sequence < 0L) {
+            switch (getOverflowPolicy()) {
+                case BLOCK:
+                    sequence = claimWithin(getBlockTimeoutMillis());
+                    onOverflow(sequence < 0L ? 1 : 0);
+                    if (sequence < 0L) {
+                        return null;
+                    }
+                    break;
+                case CALLER_RUNS:
+                    onOverflow(0);
+                    try {
+                        runnable.run();
+                    } catch (Throwable e) {
+                        e.printStackTrace();
+                    }
+                    return COMPLETED;
+                case DROP_NEWEST:
+                default:
+                    onOverflow(1);
+                    return null;
+            }
+        }
+        final int index = (int) sequence & mask;
+        slots.set(index, runnable);
+        if (parked) {
+            LockSupport.unpark(thread);
+        }
+        return new SlotCancelControler(cancelledSequences, index, sequence);
+    }
+
+    // returns the claimed sequence, or -1 if the ring is full
+    private long claim() {
+        long sequence;
+        do {
+            sequence = claimSequence.get();
+            if (sequence - consumeSequence.get() > mask) {
+                return -1L;
+            }
+        } while (!claimSequence.compareAndSet(sequence, sequence + 1L));
+        return sequence;
+    }
+
+    private long claimWithin(long timeoutMillis) {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long sequence;
+        while ((sequence = claim()) < 0L && isAlive() && !Thread.currentThread().isInterrupted()
+                && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(this, 50000L);
+        }
+        return sequence;
+    }
+
+    public enum WaitStrategy {
+        /** park until a producer publishes, lowest CPU and highest latency */
+        BLOCKING,
+        /** spin a little then keep yielding the CPU */
+        YIELDING,
+        /** never give up the CPU, lowest latency */
+        BUSY_SPIN,
+        /** spin, then yield, then park until a producer publishes */
+        SPIN_THEN_PARK
+    }
+
+    /**
+     * Cancels by sequence, so a task published again into the same slot, as reusable tasks are,
+     * is not cancelled by the controler of its earlier run.
+     */
+    public static final class SlotCancelControler implements CancelControler {
+        private final AtomicLongArray cancelledSequences;
+        private final int index;
+        private final long sequence;
+
+        public SlotCancelControler(AtomicLongArray cancelledSequences, int index, long sequence) {
+            this.cancelledSequences = cancelledSequences;
+            this.index = index;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void cancel() {
+            // a later sequence of the slot is never overwritten by an earlier one
+            for (;;) {
+                final long cancelled = cancelledSequences.get(index);
+                if (cancelled >= sequence || cancelledSequences.compareAndSet(index, cancelled, sequence)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private final class ConsumerThread extends Thread {
+        @Override
+        public void run() {
+            long sequence = consumeSequence.get();
+            int counter = 0;
+            while (!isInterrupted()) {
+                final int index = (int) sequence & mask;
+                final Runnable task = slots.get(index);
+                if (task == null) {
+                    counter = idle(counter, index);
+                    continue;
+                }
+                counter = 0;
+                slots.set(index, null);
+                final boolean cancelled = cancelledSequences.get(index) == sequence;
+                consumeSequence.lazySet(++sequence);
+                if (cancelled) {
+                    continue;
+                }
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        private int idle(int counter, int index) {
+            switch (waitStrategy) {
+                case BUSY_SPIN:
+                    return counter;
+                case YIELDING:
+                    if (counter < SPIN_TRIES) {
+                        return counter + 1;
+                    }
+                    Thread.yield();
+                    return counter;
+                case SPIN_THEN_PARK:
+                    if (counter < SPIN_TRIES) {
+                        return counter + 1;
+                    }
+                    if (counter < SPIN_TRIES + YIELD_TRIES) {
+                        Thread.yield();
+                        return counter + 1;
+                    }
+                    park(index);
+                    return counter;
+                case BLOCKING:
+                default:
+                    park(index);
+                    return counter;
+            }
+        }
+
+        private void park(int index) {
+            parked = true;
+            // re-check after announcing, a producer publishing now will see the flag and unpark us
+            if (slots.get(index) == null && !isInterrupted()) {
+                LockSupport.park(this);
+            }
+            parked = false;
+        }
+    }
+}
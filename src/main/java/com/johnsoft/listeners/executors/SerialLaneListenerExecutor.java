@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.executors;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.johnsoft.listeners.Listener;
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.ListenerExecutorFactory;
+
+/**
+ * A small fixed set of workers shared by many listeners. Each listener gets its own lane from
+ * {@link #create(Listener)}, tasks of a lane run one by one in FIFO order on whichever worker is free.
+ * Tasks executed on this executor directly run unordered on the workers. Lanes are unbounded,
+ * the overflow policy applies when the workers reject a lane or a direct task.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public final class SerialLaneListenerExecutor extends AbstractListenerExecutor implements ListenerExecutorFactory {
+    // tasks a lane runs before giving its worker to other lanes
+    private static final int LANE_BATCH_SIZE = 64;
+
+    private final ThreadPoolListenerExecutor workers;
+
+    /**
+     * @param workers usually a fixed pool sized to the number of cores
+     */
+    public SerialLaneListenerExecutor(ExecutorService workers, boolean isCoverUnexectuedMode) {
+        this(workers, isCoverUnexectuedMode, OverflowPolicy.DROP_NEWEST, 0L, null);
+    }
+
+    /**
+     * Overflows of the workers are counted by this executor and told to the listener with this executor.
+     * A lane dropped from the workers drops the tasks waiting in it.
+     *
+     * @param workers usually a fixed pool with a bounded queue, see {@link ThreadPoolListenerExecutor}
+     */
+    public SerialLaneListenerExecutor(ExecutorService workers, boolean isCoverUnexectuedMode,
+                                      OverflowPolicy overflowPolicy, long blockTimeoutMillis,
+                                      OverflowListener overflowListener) {
+        super(Mode.FOR_MULTI_SHARED, isCoverUnexectuedMode, overflowPolicy, blockTimeoutMillis, overflowListener);
+        this.workers = new ThreadPoolListenerExecutor(workers, Mode.FOR_MULTI_SHARED, false, overflowPolicy,
+                blockTimeoutMillis, new OverflowListener() {
+                    @Override
+                    public void onOverflow(ListenerExecutor executor, OverflowPolicy policy, int droppedTasks) {
+                        SerialLaneListenerExecutor.this.onOverflow(droppedTasks);
+                    }
+                });
+    }
+
+    @Override
+    protected boolean doInitialize() {
+        workers.initialize();
+        return true;
+    }
+
+    @Override
+    protected void doDestroy() {
+        workers.destroy();
+    }
+
+    @Override
+    protected CancelControler doExecute(Runnable runnable) {
+        return workers.execute(runnable);
+    }
+
+    @Override
+    public ListenerExecutor create(Listener listener) {
+        final Lane lane = new Lane(isCoverUnexectuedMode());
+        lane.initialize();
+        return lane;
+    }
+
+    @Override
+    public void release(Listener listener, ListenerExecutor executor) {
+        if (executor instanceof Lane && !executor.isDestroyed()) {
+            executor.destroy();
+        }
+    }
+
+    private final class Lane extends AbstractListenerExecutor implements Runnable, Discardable {
+        private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Lane(boolean isCoverUnexectuedMode) {
+            super(Mode.FOR_SINGLE_LISTENER, isCoverUnexectuedMode);
+        }
+
+        @Override
+        protected boolean doInitialize() {
+            return true;
+        }
+
+        @Override
+        protected void doDestroy() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                onTaskDropped(task);
+            }
+        }
+
+        /**
+         * Returns null if the workers reject the lane, the other tasks still waiting in it are then dropped.
+         */
+        @Override
+        protected CancelControler doExecute(Runnable runnable) {
+            tasks.offer(runnable);
+            if (!schedule() && tasks.remove(runnable)) {
+                dropStranded(1);
+                return null;
+            }
+            return new LaneCancelControler(tasks, runnable);
+        }
+
+        @Override
+        public void run() {
+            int count = 0;
+            Runnable task;
+            while (count < LANE_BATCH_SIZE && isAlive() && (task = tasks.poll()) != null) {
+                ++count;
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    e.printStackTrace();
+                }
+            }
+            scheduled.set(false);
+            if (!tasks.isEmpty() && isAlive() && !schedule()) {
+                dropStranded(0);
+            }
+        }
+
+        // dropped from the workers by their overflow policy
+        @Override
+        public void discard() {
+            scheduled.set(false);
+            dropStranded(0);
+        }
+
+        // returns false if the workers rejected the lane, so nothing drains it
+        private boolean schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return true;
+            }
+            boolean accepted = false;
+            try {
+                accepted = workers.execute(this) != null;
+            } catch (Throwable e) {
+                e.printStackTrace(); // the workers were destroyed
+            } finally {
+                if (!accepted) {
+                    scheduled.set(false);
+                }
+            }
+            return accepted;
+        }
+
+        // drops the tasks left while the lane is not scheduled, rejected counts the ones already taken out
+        private void dropStranded(int rejected) {
+            int dropped = rejected;
+            Runnable task;
+            while (!scheduled.get() && (task = tasks.poll()) != null) {
+                onTaskDropped(task);
+                ++dropped;
+            }
+            onOverflow(dropped);
+        }
+    }
+
+    public static final class LaneCancelControler implements CancelControler {
+        private final ConcurrentLinkedQueue<Runnable> tasks;
+        private final Runnable runnable;
+
+        public LaneCancelControler(ConcurrentLinkedQueue<Runnable> tasks, Runnable runnable) {
+            this.tasks = tasks;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void cancel() {
+            tasks.remove(runnable);
+        }
+    }
+}
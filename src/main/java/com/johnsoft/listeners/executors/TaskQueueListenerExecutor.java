@@ -17,6 +17,7 @@
 package com.johnsoft.listeners.executors;
 
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import com.johnsoft.listeners.ListenerExecutor;
 
@@ -25,6 +26,7 @@ import com.johnsoft.listeners.ListenerExecutor;
  * @version 2016-07-17
  */
 public final class TaskQueueListenerExecutor extends AbstractListenerExecutor {
+    private final byte[] postLock = new byte[0];
     private final TaskThread thread;
 
     public TaskQueueListenerExecutor(BlockingQueue<Runnable> queue, ListenerExecutor.Mode mode, boolean isCoverUnexectuedMode) {
@@ -32,6 +34,16 @@ public final class TaskQueueListenerExecutor extends AbstractListenerExecutor {
         this.thread = new TaskThread(queue);
     }
 
+    /**
+     * @param queue usually bounded, e.g. an ArrayBlockingQueue, the policy applies when it is full
+     */
+    public TaskQueueListenerExecutor(BlockingQueue<Runnable> queue, ListenerExecutor.Mode mode,
+                                     boolean isCoverUnexectuedMode, OverflowPolicy overflowPolicy,
+                                     long blockTimeoutMillis, OverflowListener overflowListener) {
+        super(mode, isCoverUnexectuedMode, overflowPolicy, blockTimeoutMillis, overflowListener);
+        this.thread = new TaskThread(queue);
+    }
+
     @Override
     public boolean doInitialize() {
         thread.start();
@@ -53,7 +65,56 @@ public final class TaskQueueListenerExecutor extends AbstractListenerExecutor {
         if (thread.post(runnable)) {
             return new TaskThreadCancelControler(thread, runnable);
         }
-        return null;
+        return onQueueFull(runnable);
+    }
+
+    private ListenerExecutor.CancelControler onQueueFull(Runnable runnable) {
+        int dropped = 0;
+        boolean posted = false;
+        switch (getOverflowPolicy()) {
+            case BLOCK:
+                try {
+                    posted = thread.post(runnable, getBlockTimeoutMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                break;
+            case DROP_OLDEST:
+                synchronized(postLock) {
+                    Runnable oldest;
+                    while (!(posted = thread.post(runnable)) && (oldest = thread.pollWaiting()) != null) {
+                        onTaskDropped(oldest);
+                        ++dropped;
+                    }
+                }
+                break;
+            case CONFLATE:
+                synchronized(postLock) {
+                    Runnable waiting;
+                    while ((waiting = thread.pollWaiting()) != null) {
+                        onTaskDropped(waiting);
+                        ++dropped;
+                    }
+                    posted = thread.post(runnable);
+                }
+                break;
+            case CALLER_RUNS:
+                onOverflow(0);
+                try {
+                    runnable.run();
+                } catch (Throwable e) {
+                    e.printStackTrace();
+                }
+                return COMPLETED;
+            case DROP_NEWEST:
+            default:
+                break;
+        }
+        if (!posted) {
+            ++dropped;
+        }
+        onOverflow(dropped);
+        return posted ? new TaskThreadCancelControler(thread, runnable) : null;
     }
 
     public static final class TaskThreadCancelControler implements ListenerExecutor.CancelControler {
@@ -88,6 +149,17 @@ public final class TaskQueueListenerExecutor extends AbstractListenerExecutor {
             return queue.offer(runnable);
         }
 
+        public boolean post(Runnable runnable, long timeoutMillis) throws InterruptedException {
+            return queue.offer(runnable, timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Removes and returns the oldest waiting runnable, or null if none.
+         */
+        public Runnable pollWaiting() {
+            return queue.poll();
+        }
+
         public boolean cancel(Runnable runnable) {
             return queue.remove(runnable);
         }
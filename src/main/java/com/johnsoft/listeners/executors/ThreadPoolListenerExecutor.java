@@ -16,8 +16,12 @@
  */
 package com.johnsoft.listeners.executors;
 
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 
@@ -27,10 +31,28 @@ import java.util.concurrent.TimeUnit;
  */
 public final class ThreadPoolListenerExecutor extends AbstractListenerExecutor {
     private final ExecutorService executorService;
+    private final boolean appliesOverflowPolicy;
 
+    /**
+     * A rejected task is not handled, the RejectedExecutionException makes execute return null.
+     */
     public ThreadPoolListenerExecutor(ExecutorService executorService, Mode mode, boolean isCoverUnexectuedMode) {
         super(mode, isCoverUnexectuedMode);
         this.executorService = executorService;
+        this.appliesOverflowPolicy = false;
+    }
+
+    /**
+     * The policy applies when the executor service rejects a task. Waiting for room or dropping waiting
+     * tasks needs a ThreadPoolExecutor, with other executor services BLOCK, DROP_OLDEST and CONFLATE only
+     * drop the new task.
+     */
+    public ThreadPoolListenerExecutor(ExecutorService executorService, Mode mode, boolean isCoverUnexectuedMode,
+                                      OverflowPolicy overflowPolicy, long blockTimeoutMillis,
+                                      OverflowListener overflowListener) {
+        super(mode, isCoverUnexectuedMode, overflowPolicy, blockTimeoutMillis, overflowListener);
+        this.executorService = executorService;
+        this.appliesOverflowPolicy = true;
     }
 
     @Override
@@ -61,8 +83,102 @@ public final class ThreadPoolListenerExecutor extends AbstractListenerExecutor {
 
     @Override
     public CancelControler doExecute(Runnable runnable) {
-        final Future<?> future = executorService.submit(runnable);
-        return new FutureCancelControler(future);
+        final TaskFuture future = new TaskFuture(runnable);
+        if (!appliesOverflowPolicy) {
+            executorService.execute(future);
+            return new FutureCancelControler(future);
+        }
+        if (tryExecute(future)) {
+            return new FutureCancelControler(future);
+        }
+        return onPoolFull(future);
+    }
+
+    private CancelControler onPoolFull(TaskFuture future) {
+        if (executorService.isShutdown()) {
+            return null;
+        }
+        final BlockingQueue<Runnable> queue = executorService instanceof ThreadPoolExecutor
+                ? ((ThreadPoolExecutor) executorService).getQueue() : null;
+        int dropped = 0;
+        boolean posted = false;
+        switch (getOverflowPolicy()) {
+            case BLOCK:
+                if (queue != null) {
+                    posted = offer(queue, future, getBlockTimeoutMillis());
+                }
+                break;
+            case DROP_OLDEST:
+                Runnable oldest;
+                while (!(posted = tryExecute(future)) && queue != null && (oldest = queue.poll()) != null) {
+                    onTaskDropped(oldest);
+                    ++dropped;
+                }
+                break;
+            case CONFLATE:
+                if (queue != null) {
+                    Runnable waiting;
+                    while ((waiting = queue.poll()) != null) {
+                        onTaskDropped(waiting);
+                        ++dropped;
+                    }
+                }
+                posted = tryExecute(future);
+                break;
+            case CALLER_RUNS:
+                onOverflow(0);
+                future.run();
+                return new FutureCancelControler(future);
+            case DROP_NEWEST:
+            default:
+                break;
+        }
+        if (!posted) {
+            ++dropped;
+        }
+        onOverflow(dropped);
+        return posted ? new FutureCancelControler(future) : null;
+    }
+
+    // the pool is saturated, so its workers are running and will take the task from the queue
+    private boolean offer(BlockingQueue<Runnable> queue, TaskFuture future, long timeoutMillis) {
+        try {
+            if (!queue.offer(future, timeoutMillis, TimeUnit.MILLISECONDS)) {
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        // a shutdown racing the offer may leave the task where no worker will look for it
+        return !executorService.isShutdown() || !queue.remove(future);
+    }
+
+    private boolean tryExecute(Runnable runnable) {
+        try {
+            executorService.execute(runnable);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    // keeps the submitted runnable so it can be told when dropped from the pool queue
+    private static final class TaskFuture extends FutureTask<Object> implements Discardable {
+        private final Runnable runnable;
+
+        TaskFuture(Runnable runnable) {
+            super(runnable, null);
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void discard() {
+            cancel(false);
+            if (runnable instanceof Discardable) {
+                ((Discardable) runnable).discard();
+            }
+        }
     }
 
     public static final class FutureCancelControler implements CancelControler {
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.executors;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.johnsoft.listeners.Listener;
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.ListenerExecutorFactory;
+
+/**
+ * Runs each task on its own virtual thread, and gives each listener a serial lane from
+ * {@link #create(Listener)} whose tasks run one by one, each drain on a virtual thread.
+ * Meant for listeners doing blocking I/O. Virtual threads are looked up at runtime so the library keeps
+ * its Java 7 baseline, on a JDK without them tasks run on a cached pool of daemon platform threads instead.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public final class VirtualThreadListenerExecutor extends AbstractListenerExecutor implements ListenerExecutorFactory {
+    private static final boolean VIRTUAL_THREADS_AVAILABLE = probeVirtualThreads();
+
+    private final SerialLaneListenerExecutor lanes;
+
+    public VirtualThreadListenerExecutor(Mode mode, boolean isCoverUnexectuedMode) {
+        super(mode, isCoverUnexectuedMode);
+        ExecutorService executorService = newVirtualThreadPerTaskExecutor();
+        if (executorService == null) {
+            executorService = Executors.newCachedThreadPool(new DaemonThreadFactory());
+        }
+        this.lanes = new SerialLaneListenerExecutor(executorService, isCoverUnexectuedMode);
+    }
+
+    public static boolean isVirtualThreadsAvailable() {
+        return VIRTUAL_THREADS_AVAILABLE;
+    }
+
+    @Override
+    protected boolean doInitialize() {
+        lanes.initialize();
+        return true;
+    }
+
+    @Override
+    protected void doDestroy() {
+        lanes.destroy();
+    }
+
+    @Override
+    protected CancelControler doExecute(Runnable runnable) {
+        return lanes.execute(runnable);
+    }
+
+    @Override
+    public ListenerExecutor create(Listener listener) {
+        return lanes.create(listener);
+    }
+
+    @Override
+    public void release(Listener listener, ListenerExecutor executor) {
+        lanes.release(listener, executor);
+    }
+
+    private static boolean probeVirtualThreads() {
+        final ExecutorService executorService = newVirtualThreadPerTaskExecutor();
+        if (executorService == null) {
+            return false;
+        }
+        executorService.shutdown();
+        return true;
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() since Java 21, null if missing or not enabled
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            final Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, "listener-executor-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
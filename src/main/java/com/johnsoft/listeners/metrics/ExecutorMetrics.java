@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the tasks handed to one executor and tracks how many of them are waiting.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public final class ExecutorMetrics {
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong discardedCount = new AtomicLong();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LatencyHistogram runTime = new LatencyHistogram();
+
+    /**
+     * Call before handing the task over, it may start before the executor returns.
+     */
+    public void recordSubmitted() {
+        submittedCount.incrementAndGet();
+        final long depth = queueDepth.incrementAndGet();
+        long max = maxQueueDepth.get();
+        while (depth > max && !maxQueueDepth.compareAndSet(max, depth)) {
+            max = maxQueueDepth.get();
+        }
+    }
+
+    public void recordRejected() {
+        rejectedCount.incrementAndGet();
+        queueDepth.decrementAndGet();
+    }
+
+    /**
+     * For a task dropped by the executor without running it.
+     */
+    public void recordDiscarded() {
+        discardedCount.incrementAndGet();
+        queueDepth.decrementAndGet();
+    }
+
+    public void recordStarted(long waitNanos) {
+        queueDepth.decrementAndGet();
+        waitTime.record(waitNanos);
+    }
+
+    public void recordCompleted(long runNanos) {
+        completedCount.incrementAndGet();
+        runTime.record(runNanos);
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(submittedCount.get(), rejectedCount.get(), discardedCount.get(), completedCount.get(),
+                queueDepth.get(), maxQueueDepth.get(), waitTime.snapshot(), runTime.snapshot());
+    }
+
+    public static final class Snapshot {
+        private final long submittedCount;
+        private final long rejectedCount;
+        private final long discardedCount;
+        private final long completedCount;
+        private final long queueDepth;
+        private final long maxQueueDepth;
+        private final LatencyHistogram.Snapshot waitTime;
+        private final LatencyHistogram.Snapshot runTime;
+
+        Snapshot(long submittedCount, long rejectedCount, long discardedCount, long completedCount,
+                 long queueDepth, long maxQueueDepth,
+                 LatencyHistogram.Snapshot waitTime, LatencyHistogram.Snapshot runTime) {
+            this.submittedCount = submittedCount;
+            this.rejectedCount = rejectedCount;
+            this.discardedCount = discardedCount;
+            this.completedCount = completedCount;
+            this.queueDepth = queueDepth;
+            this.maxQueueDepth = maxQueueDepth;
+            this.waitTime = waitTime;
+            this.runTime = runTime;
+        }
+
+        public long getSubmittedCount() {
+            return submittedCount;
+        }
+
+        /**
+         * Tasks the executor refused.
+         */
+        public long getRejectedCount() {
+            return rejectedCount;
+        }
+
+        /**
+         * Tasks accepted but dropped later, by an overflow policy or a destroy. Events replaced in
+         * cover-unexecuted mode never reach the executor, the dispatcher counts them in
+         * {@link com.johnsoft.listeners.AbstractDispatcher#getCoveredEventCount()}.
+         */
+        public long getDiscardedCount() {
+            return discardedCount;
+        }
+
+        public long getCompletedCount() {
+            return completedCount;
+        }
+
+        /**
+         * Tasks accepted and not started yet.
+         */
+        public long getQueueDepth() {
+            return queueDepth;
+        }
+
+        public long getMaxQueueDepth() {
+            return maxQueueDepth;
+        }
+
+        public LatencyHistogram.Snapshot getWaitTime() {
+            return waitTime;
+        }
+
+        public LatencyHistogram.Snapshot getRunTime() {
+            return runTime;
+        }
+
+        @Override
+        public String toString() {
+            return "submitted=" + submittedCount + ", rejected=" + rejectedCount + ", discarded=" + discardedCount
+                    + ", completed=" + completedCount + ", depth=" + queueDepth + ", maxDepth=" + maxQueueDepth
+                    + ", wait={" + waitTime + "}, run={" + runTime + "}";
+        }
+    }
+}
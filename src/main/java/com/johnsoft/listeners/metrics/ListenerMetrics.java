@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.johnsoft.listeners.Listener;
+
+/**
+ * Counts invocations and errors of one listener, and records how long its events waited
+ * in an executor and how long it ran.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public final class ListenerMetrics {
+    private final AtomicLong invocationCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LatencyHistogram runTime = new LatencyHistogram();
+
+    /**
+     * Records the time from handing the event to an executor until the listener was called.
+     */
+    public void recordWait(long nanos) {
+        waitTime.record(nanos);
+    }
+
+    /**
+     * Records one invocation, failed or not.
+     */
+    public void recordRun(long nanos) {
+        invocationCount.incrementAndGet();
+        runTime.record(nanos);
+    }
+
+    public void recordError() {
+        errorCount.incrementAndGet();
+    }
+
+    public Snapshot snapshot(Listener listener) {
+        return new Snapshot(listener, invocationCount.get(), errorCount.get(),
+                waitTime.snapshot(), runTime.snapshot());
+    }
+
+    public static final class Snapshot {
+        private final Listener listener;
+        private final long invocationCount;
+        private final long errorCount;
+        private final LatencyHistogram.Snapshot waitTime;
+        private final LatencyHistogram.Snapshot runTime;
+
+        Snapshot(Listener listener, long invocationCount, long errorCount,
+                 LatencyHistogram.Snapshot waitTime, LatencyHistogram.Snapshot runTime) {
+            this.listener = listener;
+            this.invocationCount = invocationCount;
+            this.errorCount = errorCount;
+            this.waitTime = waitTime;
+            this.runTime = runTime;
+        }
+
+        public Listener getListener() {
+            return listener;
+        }
+
+        public long getInvocationCount() {
+            return invocationCount;
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        /**
+         * Empty for listeners called on the notifying thread.
+         */
+        public LatencyHistogram.Snapshot getWaitTime() {
+            return waitTime;
+        }
+
+        public LatencyHistogram.Snapshot getRunTime() {
+            return runTime;
+        }
+
+        @Override
+        public String toString() {
+            return listener + ": invocations=" + invocationCount + ", errors=" + errorCount
+                    + ", wait={" + waitTime + "}, run={" + runTime + "}";
+        }
+    }
+}
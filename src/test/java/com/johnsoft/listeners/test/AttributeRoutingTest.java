@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.Callback;
+import com.johnsoft.listeners.CallbackDispatcher;
+import com.johnsoft.listeners.Dispatchers;
+import com.johnsoft.listeners.KeyExtractor;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class AttributeRoutingTest {
+    @Test
+    public void eachEventClassUsesItsOwnIndex() {
+        final CallbackDispatcher<Number> dispatcher = Dispatchers.disorderedIndependentDispatcher(Number.class)
+                .setSnapshotMode(true).setFilterAttribute(new KeyExtractor<Number>() {
+                    @Override
+                    public Object keyOf(Number event) {
+                        return event.intValue() % 3;
+                    }
+                }).build();
+        final RecordingCallback remainder0 = new RecordingCallback();
+        final RecordingCallback remainder1 = new RecordingCallback();
+        final RecordingCallback longs = new RecordingCallback();
+        dispatcher.addListenerForAttribute(remainder0, 0);
+        dispatcher.addListenerForAttribute(remainder1, 1);
+        dispatcher.addListener(Long.class, longs);
+        // alternating classes hand alternating arrays of registrations to the index
+        dispatcher.notifyListeners(3);
+        dispatcher.notifyListeners(4L);
+        dispatcher.notifyListeners(1);
+        dispatcher.notifyListeners(6L);
+        assertEquals(Arrays.<Number>asList(3, 6L), remainder0.events);
+        assertEquals(Arrays.<Number>asList(4L, 1), remainder1.events);
+        assertEquals(Arrays.<Number>asList(4L, 6L), longs.events);
+
+        final RecordingCallback added = new RecordingCallback();
+        dispatcher.addListenerForAttribute(added, 0);
+        dispatcher.notifyListeners(9);
+        dispatcher.notifyListeners(12L);
+        assertEquals(Arrays.<Number>asList(9, 12L), added.events);
+        assertEquals(Arrays.<Number>asList(3, 6L, 9, 12L), remainder0.events);
+        dispatcher.close();
+    }
+
+    static class RecordingCallback implements Callback<Number> {
+        final List<Number> events = new ArrayList<>();
+
+        @Override
+        public void on(Number event) {
+            events.add(event);
+        }
+    }
+}
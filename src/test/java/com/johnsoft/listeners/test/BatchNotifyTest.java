@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.Callback;
+import com.johnsoft.listeners.CallbackDispatcher;
+import com.johnsoft.listeners.Consumer;
+import com.johnsoft.listeners.ConsumerDispatcher;
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.executors.TaskQueueListenerExecutor;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class BatchNotifyTest {
+    private static final int EVENTS = 100;
+
+    @Test
+    public void callbacksGetTheBatchInOrder() throws Exception {
+        checkCallbackBatch(false, false);
+        checkCallbackBatch(true, false);
+        checkCallbackBatch(true, true);
+    }
+
+    private static void checkCallbackBatch(boolean withExecutor, boolean reusableDelivery) throws Exception {
+        final CallbackDispatcher.Builder<Object> builder = new CallbackDispatcher.Builder<Object>()
+                .setReusableDelivery(reusableDelivery);
+        final RecordingCallback first = new RecordingCallback();
+        final RecordingCallback second = new RecordingCallback();
+        final List<ListenerExecutor> executors = new ArrayList<>();
+        if (withExecutor) {
+            for (RecordingCallback callback : new RecordingCallback[] { first, second }) {
+                final ListenerExecutor executor = new TaskQueueListenerExecutor(
+                        new LinkedBlockingQueue<Runnable>(), ListenerExecutor.Mode.FOR_SINGLE_LISTENER, false);
+                executor.initialize();
+                builder.customExecutorMap().put(callback, executor);
+                executors.add(executor);
+            }
+        }
+        final CallbackDispatcher<Object> dispatcher = builder.build();
+        dispatcher.addListener(first);
+        dispatcher.addListener(second);
+        final Object[] events = newEvents();
+        dispatcher.notifyListenersInBatch(events);
+        // the array was copied, changing it does not change what was delivered
+        events[0] = -1;
+        assertTrue(first.done.await(5L, TimeUnit.SECONDS));
+        assertTrue(second.done.await(5L, TimeUnit.SECONDS));
+        assertEquals(expected(), first.received());
+        assertEquals(expected(), second.received());
+        dispatcher.close();
+        for (ListenerExecutor executor : executors) {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    public void consumersGetTheBatchInOrder() {
+        final ConsumerDispatcher<Object> dispatcher = new ConsumerDispatcher<>();
+        final RecordingConsumer consumer = new RecordingConsumer(false);
+        dispatcher.addListener(consumer);
+        dispatcher.notifyListenersInBatch(newEvents());
+        assertEquals(expected(), consumer.received);
+        dispatcher.close();
+    }
+
+    @Test
+    public void consumingAnEventStopsOnlyThatEvent() {
+        final ConsumerDispatcher<Object> dispatcher = new ConsumerDispatcher<>();
+        final RecordingConsumer evens = new RecordingConsumer(true);
+        final RecordingConsumer rest = new RecordingConsumer(false);
+        dispatcher.addListener(evens);
+        dispatcher.addListener(rest);
+        dispatcher.notifyListenersInBatch(newEvents());
+        assertEquals(expected(), evens.received);
+        final List<Object> odds = new ArrayList<>();
+        for (int i = 1; i < EVENTS; i += 2) {
+            odds.add(i);
+        }
+        assertEquals(odds, rest.received);
+        dispatcher.close();
+    }
+
+    private static Object[] newEvents() {
+        final Object[] events = new Object[EVENTS];
+        for (int i = 0; i < EVENTS; ++i) {
+            events[i] = i;
+        }
+        return events;
+    }
+
+    private static List<Object> expected() {
+        final List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < EVENTS; ++i) {
+            expected.add(i);
+        }
+        return expected;
+    }
+
+    static class RecordingCallback implements Callback<Object> {
+        private final List<Object> received = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(EVENTS);
+
+        @Override
+        public void on(Object event) {
+            synchronized(received) {
+                received.add(event);
+            }
+            done.countDown();
+        }
+
+        List<Object> received() {
+            synchronized(received) {
+                return new ArrayList<>(received);
+            }
+        }
+    }
+
+    // called on the notifying thread
+    static class RecordingConsumer implements Consumer<Object> {
+        final List<Object> received = new ArrayList<>();
+        private final boolean consumesEvens;
+
+        RecordingConsumer(boolean consumesEvens) {
+            this.consumesEvens = consumesEvens;
+        }
+
+        @Override
+        public boolean on(Object event) {
+            received.add(event);
+            return consumesEvens && (Integer) event % 2 == 0;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.Callback;
+import com.johnsoft.listeners.CallbackDispatcher;
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.executors.TaskQueueListenerExecutor;
+import com.johnsoft.listeners.executors.ThreadPoolListenerExecutor;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class CoverUnexecutedTest {
+    @Test
+    public void sharedTaskQueueKeepsLatestEventOfEachListener() throws Exception {
+        checkLatestPerListener(newTaskQueue(), false);
+        checkLatestPerListener(newTaskQueue(), true);
+    }
+
+    @Test
+    public void sharedThreadPoolKeepsLatestEventOfEachListener() throws Exception {
+        checkLatestPerListener(newThreadPool(), false);
+        checkLatestPerListener(newThreadPool(), true);
+    }
+
+    @Test
+    public void batchKeepsOnlyItsLastEvent() throws Exception {
+        final ListenerExecutor executor = newTaskQueue();
+        final CallbackDispatcher<String> dispatcher = new CallbackDispatcher.Builder<String>()
+                .setDefaultExecutor(executor).build();
+        final RecordingCallback callback = new RecordingCallback(1);
+        dispatcher.addListener(callback);
+        dispatcher.notifyListenersInBatch(new Object[] { "e1", "e2", "e3" });
+        assertTrue(callback.await());
+        assertEquals(Arrays.asList("e3"), callback.events());
+        assertEquals(2L, dispatcher.getCoveredEventCount());
+        dispatcher.close();
+    }
+
+    private static void checkLatestPerListener(ListenerExecutor executor, boolean reusableDelivery)
+            throws Exception {
+        final CallbackDispatcher<String> dispatcher = new CallbackDispatcher.Builder<String>()
+                .setDefaultExecutor(executor).setReusableDelivery(reusableDelivery).build();
+        final RecordingCallback first = new RecordingCallback(1);
+        final RecordingCallback second = new RecordingCallback(1);
+        dispatcher.addListener(first);
+        dispatcher.addListener(second);
+        // hold the executor so the deliveries of both callbacks wait
+        final CountDownLatch release = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        dispatcher.notifyListeners("e1");
+        dispatcher.notifyListeners("e2");
+        dispatcher.notifyListeners("e3");
+        release.countDown();
+        assertTrue(first.await());
+        assertTrue(second.await());
+        dispatcher.close();
+        assertEquals(Arrays.asList("e3"), first.events());
+        assertEquals(Arrays.asList("e3"), second.events());
+        assertEquals(4L, dispatcher.getCoveredEventCount());
+    }
+
+    private static ListenerExecutor newTaskQueue() {
+        final ListenerExecutor executor = new TaskQueueListenerExecutor(new LinkedBlockingQueue<Runnable>(),
+                ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER, true);
+        executor.initialize();
+        return executor;
+    }
+
+    private static ListenerExecutor newThreadPool() {
+        final ListenerExecutor executor = new ThreadPoolListenerExecutor(Executors.newSingleThreadExecutor(),
+                ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER, true);
+        executor.initialize();
+        return executor;
+    }
+
+    static class RecordingCallback implements Callback<String> {
+        private final List<String> events = new ArrayList<>();
+        private final CountDownLatch expected;
+
+        RecordingCallback(int expectedEvents) {
+            expected = new CountDownLatch(expectedEvents);
+        }
+
+        @Override
+        public void on(String event) {
+            synchronized(events) {
+                events.add(event);
+            }
+            expected.countDown();
+        }
+
+        boolean await() throws InterruptedException {
+            return expected.await(5L, TimeUnit.SECONDS);
+        }
+
+        List<String> events() {
+            synchronized(events) {
+                return new ArrayList<>(events);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.Callback;
+import com.johnsoft.listeners.CallbackDispatcher;
+import com.johnsoft.listeners.EventFilter;
+import com.johnsoft.listeners.Listener;
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.ListenerExecutorFactory;
+import com.johnsoft.listeners.executors.TaskQueueListenerExecutor;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class DuplicateListenerTest {
+    @Test
+    public void duplicateCreatesNoExecutor() {
+        checkDuplicates(false);
+        checkDuplicates(true);
+    }
+
+    private static void checkDuplicates(boolean lockFreeRegistry) {
+        final CountingFactory factory = new CountingFactory();
+        final CallbackDispatcher<Object> dispatcher = new CallbackDispatcher.Builder<Object>()
+                .setLockFreeRegistry(lockFreeRegistry).setDistinct(true).setPerExecutorFactory(factory).build();
+        final Callback<Object> callback = new Callback<Object>() {
+            @Override
+            public void on(Object event) {
+            }
+        };
+        assertTrue(dispatcher.addListener(callback));
+        assertFalse(dispatcher.addListener(callback));
+        assertFalse(dispatcher.addListener(callback, new EventFilter<Object>() {
+            @Override
+            public boolean accept(Object event) {
+                return true;
+            }
+        }));
+        assertEquals(0, dispatcher.addListeners(Arrays.asList(callback)));
+        assertEquals(1, factory.created.get());
+        assertEquals(0, factory.released.get());
+        dispatcher.close();
+        assertEquals(1, factory.released.get());
+    }
+
+    @Test
+    public void repeatedListenerKeepsItsCustomExecutor() throws Exception {
+        checkRepeatedListener(false);
+        checkRepeatedListener(true);
+    }
+
+    private static void checkRepeatedListener(boolean lockFreeRegistry) throws Exception {
+        final CallbackDispatcher.Builder<Object> builder = new CallbackDispatcher.Builder<Object>()
+                .setLockFreeRegistry(lockFreeRegistry).setDistinct(true);
+        final RecordingCallback callback = new RecordingCallback();
+        final ListenerExecutor custom = newSingleListenerExecutor();
+        builder.customExecutorMap().put(callback, custom);
+        final CallbackDispatcher<Object> dispatcher = builder.build();
+        assertEquals(1, dispatcher.addListeners(Arrays.asList(callback, callback)));
+        assertEquals(0, dispatcher.addListeners(Arrays.asList(callback)));
+        assertFalse(custom.isDestroyed());
+        dispatcher.notifyListeners("event");
+        assertTrue(callback.received.await(5L, TimeUnit.SECONDS));
+        dispatcher.close();
+    }
+
+    @Test
+    public void removingOneCopyKeepsTheSharedCustomExecutor() throws Exception {
+        final CallbackDispatcher.Builder<Object> builder = new CallbackDispatcher.Builder<Object>()
+                .setDistinct(false);
+        final RecordingCallback callback = new RecordingCallback();
+        final ListenerExecutor custom = newSingleListenerExecutor();
+        builder.customExecutorMap().put(callback, custom);
+        final CallbackDispatcher<Object> dispatcher = builder.build();
+        assertEquals(2, dispatcher.addListeners(Arrays.asList(callback, callback)));
+        assertTrue(dispatcher.removeListener(callback));
+        assertFalse(custom.isDestroyed());
+        dispatcher.notifyListeners("event");
+        assertTrue(callback.received.await(5L, TimeUnit.SECONDS));
+        assertTrue(dispatcher.removeListener(callback));
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        while (!custom.isDestroyed() && System.nanoTime() < deadline) {
+            Thread.sleep(1L);
+        }
+        assertTrue(custom.isDestroyed());
+        dispatcher.close();
+    }
+
+    private static ListenerExecutor newSingleListenerExecutor() {
+        final ListenerExecutor executor = new TaskQueueListenerExecutor(new LinkedBlockingQueue<Runnable>(),
+                ListenerExecutor.Mode.FOR_SINGLE_LISTENER, false);
+        executor.initialize();
+        return executor;
+    }
+
+    static class RecordingCallback implements Callback<Object> {
+        final CountDownLatch received = new CountDownLatch(1);
+
+        @Override
+        public void on(Object event) {
+            received.countDown();
+        }
+    }
+
+    static class CountingFactory implements ListenerExecutorFactory {
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger released = new AtomicInteger();
+
+        @Override
+        public ListenerExecutor create(Listener listener) {
+            created.incrementAndGet();
+            return null;
+        }
+
+        @Override
+        public void release(Listener listener, ListenerExecutor executor) {
+            released.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.Callback;
+import com.johnsoft.listeners.CallbackDispatcher;
+import com.johnsoft.listeners.EventFactory;
+import com.johnsoft.listeners.EventFilter;
+import com.johnsoft.listeners.EventSlot;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class EventSlotTest {
+    private static final int CAPACITY = 2;
+
+    @Test
+    public void slotsReturnOnceEveryCallbackIsDone() {
+        final CallbackDispatcher<StringBuilder> dispatcher = new CallbackDispatcher.Builder<StringBuilder>()
+                .setEventSlots(new EventFactory<StringBuilder>() {
+                    @Override
+                    public StringBuilder newEvent() {
+                        return new StringBuilder();
+                    }
+                }, CAPACITY).build();
+        final List<String> received = new ArrayList<>();
+        final Callback<StringBuilder> callback = new Callback<StringBuilder>() {
+            @Override
+            public void on(StringBuilder event) {
+                received.add(event.toString());
+            }
+        };
+        dispatcher.addListener(callback);
+        // rejects every event, so its share of each slot is released without a call
+        dispatcher.addListener(new Callback<StringBuilder>() {
+            @Override
+            public void on(StringBuilder event) {
+                received.add("rejected " + event);
+            }
+        }, new EventFilter<StringBuilder>() {
+            @Override
+            public boolean accept(StringBuilder event) {
+                return false;
+            }
+        });
+        assertEquals(CAPACITY, dispatcher.getFreeSlotCount());
+
+        final EventSlot<StringBuilder> slot = dispatcher.claimSlot();
+        assertEquals(CAPACITY - 1, dispatcher.getFreeSlotCount());
+        slot.get().setLength(0);
+        slot.get().append("a");
+        dispatcher.publish(slot);
+        assertEquals(CAPACITY, dispatcher.getFreeSlotCount());
+
+        @SuppressWarnings("unchecked") // a generic array, only ever holding slots of StringBuilder
+        final EventSlot<StringBuilder>[] slots = (EventSlot<StringBuilder>[]) new EventSlot<?>[CAPACITY];
+        for (int i = 0; i < slots.length; ++i) {
+            slots[i] = dispatcher.claimSlot();
+            slots[i].get().setLength(0);
+            slots[i].get().append((char) ('b' + i));
+        }
+        assertEquals(0, dispatcher.getFreeSlotCount());
+        dispatcher.publishInBatch(slots);
+        assertEquals(CAPACITY, dispatcher.getFreeSlotCount());
+
+        assertEquals(3, received.size());
+        assertEquals("a", received.get(0));
+        assertEquals("b", received.get(1));
+        assertEquals("c", received.get(2));
+        dispatcher.close();
+    }
+}
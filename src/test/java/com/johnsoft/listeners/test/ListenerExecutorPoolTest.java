@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.executors.ListenerExecutorPool;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class ListenerExecutorPoolTest {
+    @Test
+    public void releasedExecutorIsReused() {
+        final ListenerExecutorPool pool = new ListenerExecutorPool(MyListenerExecutor.class, 0, 4,
+                1L, TimeUnit.HOURS);
+        final ListenerExecutor first = pool.create(null);
+        assertTrue(first.isAlive());
+        pool.release(null, first);
+        assertEquals(1, pool.getIdleCount());
+        assertSame(first, pool.create(null));
+        assertEquals(1L, pool.getCreatedCount());
+        assertEquals(1L, pool.getReusedCount());
+        assertEquals(1, pool.getUsedCount());
+        assertEquals(0, pool.getIdleCount());
+        pool.release(null, first);
+        pool.destroy();
+        assertTrue(first.isDestroyed());
+    }
+
+    @Test
+    public void idleExecutorsBeyondTheMinimumAreEvicted() throws Exception {
+        final ListenerExecutorPool pool = new ListenerExecutorPool(MyListenerExecutor.class, 1, 4,
+                10L, TimeUnit.MILLISECONDS);
+        final ListenerExecutor first = pool.create(null);
+        final ListenerExecutor second = pool.create(null);
+        pool.release(null, first);
+        pool.release(null, second);
+        assertEquals(2, pool.getIdleCount());
+        Thread.sleep(50L);
+        pool.evictIdle();
+        // the oldest goes, the most recently released one is kept as the minimum
+        assertEquals(1, pool.getIdleCount());
+        assertTrue(first.isDestroyed());
+        assertFalse(second.isDestroyed());
+        pool.destroy();
+        assertTrue(second.isDestroyed());
+    }
+
+    @Test
+    public void createReturnsNullBeyondTheCap() {
+        final ListenerExecutorPool pool = new ListenerExecutorPool(MyListenerExecutor.class, 0, 2,
+                1L, TimeUnit.HOURS);
+        final ListenerExecutor first = pool.create(null);
+        final ListenerExecutor second = pool.create(null);
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(pool.create(null));
+        pool.release(null, first);
+        // the idle one is reused, the cap still holds
+        assertSame(first, pool.create(null));
+        assertNull(pool.create(null));
+        pool.release(null, first);
+        pool.release(null, second);
+        pool.destroy();
+    }
+
+    @Test
+    public void failedCreateGivesItsReservationBack() {
+        final ListenerExecutorPool pool = new ListenerExecutorPool(null, 0, 1, 1L, TimeUnit.HOURS) {
+            private boolean failed;
+
+            @Override
+            protected ListenerExecutor newExecutor() {
+                if (!failed) {
+                    failed = true;
+                    throw new AssertionError("first executor fails");
+                }
+                return new MyListenerExecutor();
+            }
+        };
+        try {
+            pool.create(null);
+            fail();
+        } catch (AssertionError expected) {
+            // not an Exception, the reservation must be given back all the same
+        }
+        final ListenerExecutor executor = pool.create(null);
+        assertNotNull(executor);
+        pool.release(null, executor);
+        pool.destroy();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.AbstractDispatcher;
+import com.johnsoft.listeners.Listener;
+
+/**
+ * A dispatcher written against the listener hook, as subclasses did before registrations.
+ *
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class ListenerHookTest {
+    @Test
+    public void listenerHookGetsTheListenersInOrder() {
+        final NamedDispatcher dispatcher = new NamedDispatcher(new NamedDispatcher.Builder());
+        final List<String> calls = new ArrayList<>();
+        dispatcher.addListener(new NamedListener("a", calls));
+        dispatcher.addListener(new NamedListener("b", calls));
+        dispatcher.notifyListeners("e1");
+        dispatcher.notifyListenersInBatch(new Object[] { "e2", "e3" });
+        assertEquals(Arrays.asList("a:e1", "b:e1", "a:e2", "b:e2", "a:e3", "b:e3"), calls);
+        dispatcher.close();
+    }
+
+    static class NamedListener implements Listener {
+        final String name;
+        final List<String> calls;
+
+        NamedListener(String name, List<String> calls) {
+            this.name = name;
+            this.calls = calls;
+        }
+    }
+
+    static class NamedDispatcher extends AbstractDispatcher {
+        NamedDispatcher(Builder builder) {
+            super(builder);
+        }
+
+        @Override
+        public Builder newBuilder() {
+            return new Builder();
+        }
+
+        @Override
+        protected void doNotifyListeners(Listener[] listeners, Object event) {
+            for (int i = 0; i < listeners.length; ++i) {
+                final NamedListener listener = (NamedListener) listeners[i];
+                listener.calls.add(listener.name + ":" + event);
+            }
+        }
+
+        @Override
+        protected void onListenersUpdate(int code, Listener listener) {
+        }
+
+        static class Builder extends AbstractDispatcher.Builder {
+            @Override
+            public NamedDispatcher build() {
+                return new NamedDispatcher(this);
+            }
+        }
+    }
+}
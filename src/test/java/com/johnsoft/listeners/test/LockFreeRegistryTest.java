@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.Callback;
+import com.johnsoft.listeners.CallbackDispatcher;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class LockFreeRegistryTest {
+    private static final int THREADS = 4;
+    private static final int CALLBACKS_PER_THREAD = 200;
+
+    @Test
+    public void concurrentAddsAndRemovesAreNotLost() throws Exception {
+        final CallbackDispatcher<Object> dispatcher = new CallbackDispatcher.Builder<Object>()
+                .setLockFreeRegistry(true).build();
+        final AtomicInteger notified = new AtomicInteger();
+        @SuppressWarnings("unchecked") // a generic array, only ever holding callbacks of Object
+        final Callback<Object>[][] callbacks = (Callback<Object>[][]) new Callback<?>[THREADS][CALLBACKS_PER_THREAD];
+        for (int i = 0; i < THREADS; ++i) {
+            for (int j = 0; j < CALLBACKS_PER_THREAD; ++j) {
+                callbacks[i][j] = new Callback<Object>() {
+                    @Override
+                    public void on(Object event) {
+                        notified.incrementAndGet();
+                    }
+                };
+            }
+        }
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; ++i) {
+            final Callback<Object>[] own = callbacks[i];
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    // add all, then remove every other one, racing with the other threads
+                    for (int j = 0; j < own.length; ++j) {
+                        dispatcher.addListener(own[j]);
+                    }
+                    for (int j = 0; j < own.length; j += 2) {
+                        dispatcher.removeListener(own[j]);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        start.countDown();
+        for (int i = 0; i < THREADS; ++i) {
+            threads[i].join();
+        }
+        for (int i = 0; i < THREADS; ++i) {
+            for (int j = 0; j < CALLBACKS_PER_THREAD; ++j) {
+                assertEquals(j % 2 != 0, dispatcher.containsListener(callbacks[i][j]));
+            }
+        }
+        dispatcher.notifyListeners("event");
+        assertEquals(THREADS * CALLBACKS_PER_THREAD / 2, notified.get());
+        dispatcher.close();
+    }
+
+    @Test
+    public void distinctRegistryRejectsDuplicates() {
+        final CallbackDispatcher<Object> dispatcher = new CallbackDispatcher.Builder<Object>()
+                .setLockFreeRegistry(true).setDistinct(true).build();
+        final Callback<Object> callback = new Callback<Object>() {
+            @Override
+            public void on(Object event) {
+            }
+        };
+        assertTrue(dispatcher.addListener(callback));
+        assertFalse(dispatcher.addListener(callback));
+        assertTrue(dispatcher.removeListener(callback));
+        assertFalse(dispatcher.containsListener(callback));
+        dispatcher.close();
+    }
+}
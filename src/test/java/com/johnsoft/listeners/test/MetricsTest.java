@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.Callback;
+import com.johnsoft.listeners.CallbackDispatcher;
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.executors.InstrumentedListenerExecutor;
+import com.johnsoft.listeners.executors.OverflowPolicy;
+import com.johnsoft.listeners.executors.TaskQueueListenerExecutor;
+import com.johnsoft.listeners.executors.ThreadPoolListenerExecutor;
+import com.johnsoft.listeners.metrics.ExecutorMetrics;
+import com.johnsoft.listeners.metrics.ListenerMetrics;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class MetricsTest {
+    private static final long HOLD_MILLIS = 30L;
+
+    @Test
+    public void listenerSnapshotCountsRunsErrorsAndWaits() throws Exception {
+        final CountDownLatch done = new CountDownLatch(3);
+        final Callback<Object> callback = new Callback<Object>() {
+            @Override
+            public void on(Object event) {
+                done.countDown();
+                if ("hold".equals(event)) {
+                    sleep(HOLD_MILLIS);
+                } else if ("fail".equals(event)) {
+                    throw new IllegalStateException("expected");
+                }
+            }
+        };
+        final ListenerExecutor executor = new TaskQueueListenerExecutor(new LinkedBlockingQueue<Runnable>(),
+                ListenerExecutor.Mode.FOR_SINGLE_LISTENER, false);
+        executor.initialize();
+        final CallbackDispatcher.Builder<Object> builder = new CallbackDispatcher.Builder<Object>()
+                .setMetricsEnabled(true);
+        builder.customExecutorMap().put(callback, executor);
+        final CallbackDispatcher<Object> dispatcher = builder.build();
+        dispatcher.addListener(callback);
+        dispatcher.notifyListeners("hold");
+        dispatcher.notifyListeners("fail");
+        dispatcher.notifyListeners("event");
+        assertTrue(done.await(5L, TimeUnit.SECONDS));
+        final List<ListenerMetrics.Snapshot> snapshots = awaitInvocations(dispatcher, 3L);
+        assertEquals(1, snapshots.size());
+        final ListenerMetrics.Snapshot snapshot = snapshots.get(0);
+        assertSame(callback, snapshot.getListener());
+        assertEquals(3L, snapshot.getInvocationCount());
+        assertEquals(1L, snapshot.getErrorCount());
+        assertEquals(3L, snapshot.getRunTime().getCount());
+        assertTrue(snapshot.getRunTime().getTotalNanos() >= TimeUnit.MILLISECONDS.toNanos(HOLD_MILLIS));
+        // the two events behind the held one waited for it
+        assertEquals(3L, snapshot.getWaitTime().getCount());
+        assertTrue(snapshot.getWaitTime().getTotalNanos() >= TimeUnit.MILLISECONDS.toNanos(HOLD_MILLIS));
+        dispatcher.close();
+        executor.destroy();
+    }
+
+    @Test
+    public void listenerMetricsAreEmptyWhenDisabled() {
+        final CallbackDispatcher<Object> dispatcher = new CallbackDispatcher<>();
+        dispatcher.addListener(new Callback<Object>() {
+            @Override
+            public void on(Object event) {
+            }
+        });
+        dispatcher.notifyListeners("event");
+        assertTrue(dispatcher.getListenerMetrics().isEmpty());
+        dispatcher.close();
+    }
+
+    @Test
+    public void executorSnapshotCountsEachOutcome() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final InstrumentedListenerExecutor executor = new InstrumentedListenerExecutor(
+                new ThreadPoolListenerExecutor(new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<Runnable>(1)), ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER, false,
+                        OverflowPolicy.DROP_OLDEST, 0L, null));
+        executor.initialize();
+        final CountDownLatch started = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(started.await(5L, TimeUnit.SECONDS));
+        final CountDownLatch ran = new CountDownLatch(1);
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                ran.countDown();
+            }
+        };
+        executor.execute(task);
+        // drops the waiting one
+        executor.execute(task);
+        sleep(HOLD_MILLIS);
+        ExecutorMetrics.Snapshot snapshot = executor.getMetrics().snapshot();
+        assertEquals(3L, snapshot.getSubmittedCount());
+        assertEquals(1L, snapshot.getDiscardedCount());
+        assertEquals(1L, snapshot.getQueueDepth());
+        assertEquals(2L, snapshot.getMaxQueueDepth());
+        release.countDown();
+        assertTrue(ran.await(5L, TimeUnit.SECONDS));
+        executor.destroy();
+        snapshot = executor.getMetrics().snapshot();
+        assertEquals(0L, snapshot.getRejectedCount());
+        assertEquals(2L, snapshot.getCompletedCount());
+        assertEquals(0L, snapshot.getQueueDepth());
+        assertEquals(2L, snapshot.getWaitTime().getCount());
+        // the last task waited behind the held one
+        assertTrue(snapshot.getWaitTime().getTotalNanos() >= TimeUnit.MILLISECONDS.toNanos(HOLD_MILLIS));
+        assertTrue(snapshot.getRunTime().getTotalNanos() >= TimeUnit.MILLISECONDS.toNanos(HOLD_MILLIS));
+    }
+
+    @Test
+    public void executorSnapshotCountsRejections() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final InstrumentedListenerExecutor executor = new InstrumentedListenerExecutor(
+                new ThreadPoolListenerExecutor(new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<Runnable>(1)), ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER, false));
+        executor.initialize();
+        final Runnable hold = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        executor.execute(hold);
+        executor.execute(hold);
+        // the worker and the queue are taken
+        assertNull(executor.execute(hold));
+        final ExecutorMetrics.Snapshot snapshot = executor.getMetrics().snapshot();
+        assertEquals(3L, snapshot.getSubmittedCount());
+        assertEquals(1L, snapshot.getRejectedCount());
+        assertEquals(0L, snapshot.getDiscardedCount());
+        release.countDown();
+        executor.destroy();
+    }
+
+    private static List<ListenerMetrics.Snapshot> awaitInvocations(CallbackDispatcher<Object> dispatcher,
+                                                                   long invocations) throws InterruptedException {
+        // the last run is recorded just after the callback returns
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        List<ListenerMetrics.Snapshot> snapshots = dispatcher.getListenerMetrics();
+        while (snapshots.get(0).getInvocationCount() < invocations && System.nanoTime() < deadline) {
+            Thread.sleep(1L);
+            snapshots = dispatcher.getListenerMetrics();
+        }
+        return snapshots;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.executors.OnDemandListenerExecutor;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class OnDemandListenerExecutorTest {
+    @Test
+    public void startsOnTheFirstExecute() throws Exception {
+        final RecordingExecutor executor = new RecordingExecutor(1L, TimeUnit.HOURS);
+        executor.initialize();
+        assertTrue(executor.isAlive());
+        assertFalse(executor.isStarted());
+        assertEquals(0, executor.delegates().size());
+        runOn(executor);
+        assertTrue(executor.isStarted());
+        assertEquals(1L, executor.getStartCount());
+        runOn(executor);
+        assertEquals(1L, executor.getStartCount());
+        executor.destroy();
+        assertTrue(executor.delegates().get(0).isDestroyed());
+    }
+
+    @Test
+    public void restartsAfterTheIdleReaperStoppedIt() throws Exception {
+        final RecordingExecutor executor = new RecordingExecutor(20L, TimeUnit.MILLISECONDS);
+        executor.initialize();
+        runOn(executor);
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        // the reaper lets go of the delegate before destroying it
+        while (!executor.delegates().get(0).isDestroyed() && System.nanoTime() < deadline) {
+            Thread.sleep(5L);
+        }
+        assertTrue(executor.delegates().get(0).isDestroyed());
+        assertFalse(executor.isStarted());
+        assertTrue(executor.isAlive());
+        runOn(executor);
+        assertEquals(2L, executor.getStartCount());
+        assertEquals(2, executor.delegates().size());
+        assertTrue(executor.delegates().get(1).isAlive());
+        executor.destroy();
+        assertTrue(executor.delegates().get(1).isDestroyed());
+    }
+
+    private static void runOn(ListenerExecutor executor) throws InterruptedException {
+        final CountDownLatch ran = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                ran.countDown();
+            }
+        });
+        assertTrue(ran.await(5L, TimeUnit.SECONDS));
+    }
+
+    static class RecordingExecutor extends OnDemandListenerExecutor {
+        private final List<ListenerExecutor> delegates = new ArrayList<>();
+
+        RecordingExecutor(long idleTimeout, TimeUnit unit) {
+            super(null, Mode.FOR_SINGLE_LISTENER, false, idleTimeout, unit);
+        }
+
+        @Override
+        protected ListenerExecutor newDelegate() {
+            final ListenerExecutor delegate = new MyListenerExecutor();
+            synchronized(delegates) {
+                delegates.add(delegate);
+            }
+            return delegate;
+        }
+
+        List<ListenerExecutor> delegates() {
+            synchronized(delegates) {
+                return new ArrayList<>(delegates);
+            }
+        }
+    }
+}
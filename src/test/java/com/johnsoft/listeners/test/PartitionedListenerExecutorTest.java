@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.executors.InstrumentedListenerExecutor;
+import com.johnsoft.listeners.executors.OnDemandListenerExecutor;
+import com.johnsoft.listeners.executors.PartitionedListenerExecutor;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class PartitionedListenerExecutorTest {
+    private static final int LANES = 4;
+    // not a multiple of the lanes, so round robin would move each key between lanes
+    private static final int KEYS = 7;
+    private static final int TASKS_PER_KEY = 500;
+
+    @Test
+    public void keysKeepTheirLane() throws Exception {
+        checkKeyedOrder(new PartitionedListenerExecutor(LANES, ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER, true));
+    }
+
+    @Test
+    public void keysPassThroughInstrumentation() throws Exception {
+        checkKeyedOrder(new InstrumentedListenerExecutor(
+                new PartitionedListenerExecutor(LANES, ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER, false)));
+    }
+
+    @Test
+    public void keysPassThroughOnDemandStart() throws Exception {
+        checkKeyedOrder(new OnDemandListenerExecutor(null, ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER, false,
+                1L, TimeUnit.MINUTES) {
+            @Override
+            protected ListenerExecutor newDelegate() {
+                return new PartitionedListenerExecutor(LANES, ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER, false);
+            }
+        });
+    }
+
+    private static void checkKeyedOrder(ListenerExecutor executor) throws Exception {
+        executor.initialize();
+        final List<List<Integer>> ran = new ArrayList<>();
+        final List<Set<Thread>> threads = new ArrayList<>();
+        for (int key = 0; key < KEYS; ++key) {
+            ran.add(new ArrayList<Integer>());
+            threads.add(new HashSet<Thread>());
+        }
+        final CountDownLatch done = new CountDownLatch(KEYS * TASKS_PER_KEY);
+        for (int i = 0; i < TASKS_PER_KEY; ++i) {
+            for (int key = 0; key < KEYS; ++key) {
+                assertNotNull(executor.execute(new KeyedTask(key, i, ran.get(key), threads.get(key), done)));
+            }
+        }
+        assertTrue(done.await(5L, TimeUnit.SECONDS));
+        executor.destroy();
+        for (int key = 0; key < KEYS; ++key) {
+            synchronized(ran.get(key)) {
+                assertEquals("key " + key + " ran on several lanes", 1, threads.get(key).size());
+                for (int i = 0; i < TASKS_PER_KEY; ++i) {
+                    assertEquals(Integer.valueOf(i), ran.get(key).get(i));
+                }
+            }
+        }
+    }
+
+    static class KeyedTask implements Runnable, ListenerExecutor.Keyed {
+        private final Integer key;
+        private final int index;
+        private final List<Integer> ran;
+        private final Set<Thread> threads;
+        private final CountDownLatch done;
+
+        KeyedTask(int key, int index, List<Integer> ran, Set<Thread> threads, CountDownLatch done) {
+            this.key = key;
+            this.index = index;
+            this.ran = ran;
+            this.threads = threads;
+            this.done = done;
+        }
+
+        @Override
+        public Object partitionKey() {
+            return key;
+        }
+
+        @Override
+        public void run() {
+            synchronized(ran) {
+                ran.add(index);
+                threads.add(Thread.currentThread());
+            }
+            done.countDown();
+        }
+    }
+}
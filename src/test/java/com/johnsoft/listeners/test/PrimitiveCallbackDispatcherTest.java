@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.DoubleCallback;
+import com.johnsoft.listeners.DoubleCallbackDispatcher;
+import com.johnsoft.listeners.IntCallback;
+import com.johnsoft.listeners.IntCallbackDispatcher;
+import com.johnsoft.listeners.Listener;
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.ListenerExecutorFactory;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class PrimitiveCallbackDispatcherTest {
+    @Test
+    public void eventsArriveUnchanged() {
+        final AtomicLong sum = new AtomicLong();
+        final IntCallbackDispatcher ints = new IntCallbackDispatcher();
+        ints.addListener(new IntCallback() {
+            @Override
+            public void on(int event) {
+                sum.addAndGet(event);
+            }
+        });
+        ints.notifyListeners(-3);
+        ints.notifyListenersInBatch(new int[] { 10, 20 });
+        assertEquals(27L, sum.get());
+        ints.close();
+
+        final double[] last = new double[1];
+        final DoubleCallbackDispatcher doubles = new DoubleCallbackDispatcher();
+        doubles.addListener(new DoubleCallback() {
+            @Override
+            public void on(double event) {
+                last[0] = event;
+            }
+        });
+        doubles.notifyListeners(-0.5);
+        assertEquals(-0.5, last[0], 0.0);
+        doubles.close();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void typeRoutingIsNotSupported() {
+        new IntCallbackDispatcher.Builder().setTypeRouting(true);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void reusableDeliveryIsNotConfigurable() {
+        new DoubleCallbackDispatcher.Builder().setReusableDelivery(false);
+    }
+
+    @Test
+    public void unclosedDispatcherIsReclaimed() throws Exception {
+        final CountDownLatch released = new CountDownLatch(1);
+        final ListenerExecutorFactory factory = new ListenerExecutorFactory() {
+            @Override
+            public ListenerExecutor create(Listener listener) {
+                return null;
+            }
+
+            @Override
+            public void release(Listener listener, ListenerExecutor executor) {
+                released.countDown();
+            }
+        };
+        final IntCallback callback = new IntCallback() {
+            @Override
+            public void on(int event) {
+            }
+        };
+        final WeakReference<IntCallbackDispatcher> reference = newDispatcher(factory, callback);
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10L);
+        while (reference.get() != null && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10L);
+        }
+        assertNull("the registrations keep the dispatcher reachable", reference.get());
+        // the orphaned registration gives its executor back without the dispatcher
+        while (released.getCount() > 0L && System.nanoTime() < deadline) {
+            System.gc();
+            released.await(10L, TimeUnit.MILLISECONDS);
+        }
+        assertTrue(released.await(0L, TimeUnit.MILLISECONDS));
+    }
+
+    private static WeakReference<IntCallbackDispatcher> newDispatcher(ListenerExecutorFactory factory,
+                                                                     IntCallback callback) {
+        final IntCallbackDispatcher dispatcher = new IntCallbackDispatcher.Builder().setPerExecutorFactory(factory)
+                .build();
+        dispatcher.addListener(callback);
+        dispatcher.notifyListeners(1);
+        return new WeakReference<>(dispatcher);
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.Callback;
+import com.johnsoft.listeners.CallbackDispatcher;
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.QuarantineListener;
+import com.johnsoft.listeners.QuarantinePolicy;
+import com.johnsoft.listeners.QuarantinePolicy.State;
+import com.johnsoft.listeners.executors.TaskQueueListenerExecutor;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class QuarantinePolicyTest {
+    private static final long RECOVERY_MILLIS = 50L;
+
+    @Test(expected = NullPointerException.class)
+    public void isolateOnRejectsNull() {
+        new QuarantinePolicy.Builder().isolateOn(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void thresholdsOutOfRangeAreRejected() {
+        new QuarantinePolicy.Builder().setSlowInvocationThreshold(0).build();
+    }
+
+    @Test
+    public void slowRunsInARowTripTheQuarantine() {
+        final Transitions transitions = new Transitions();
+        final SlowCallback callback = new SlowCallback();
+        final CallbackDispatcher<Object> dispatcher = newDispatcher(newPolicy(transitions).shed().build(), callback);
+        callback.slow = true;
+        dispatcher.notifyListeners("slow");
+        callback.slow = false;
+        dispatcher.notifyListeners("fast");
+        callback.slow = true;
+        dispatcher.notifyListeners("slow");
+        // a run within budget restarted the streak
+        assertEquals(0, transitions.size());
+        dispatcher.notifyListeners("slow");
+        assertEquals(Arrays.asList(State.HEALTHY + ">" + State.QUARANTINED), transitions.list());
+        assertEquals(4, callback.calls.get());
+        dispatcher.notifyListeners("shed");
+        assertEquals(4, callback.calls.get());
+        dispatcher.close();
+    }
+
+    @Test
+    public void backlogTripsTheQuarantine() throws Exception {
+        final Transitions transitions = new Transitions();
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+        final Callback<Object> callback = new Callback<Object>() {
+            @Override
+            public void on(Object event) {
+                calls.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        final CallbackDispatcher.Builder<Object> builder = new CallbackDispatcher.Builder<Object>()
+                .setQuarantinePolicy(newPolicy(transitions).setExecutionBudget(1L, TimeUnit.HOURS)
+                        .setMaxBacklog(2).shed().build());
+        builder.customExecutorMap().put(callback, newExecutor());
+        final CallbackDispatcher<Object> dispatcher = builder.build();
+        dispatcher.addListener(callback);
+        final int notified = 6;
+        for (int i = 0; i < notified; ++i) {
+            dispatcher.notifyListeners(i);
+        }
+        assertEquals(Arrays.asList(State.HEALTHY + ">" + State.QUARANTINED), transitions.list());
+        release.countDown();
+        dispatcher.close();
+        assertTrue(calls.get() < notified);
+    }
+
+    @Test
+    public void fastProbeRecovers() throws Exception {
+        final Transitions transitions = new Transitions();
+        final SlowCallback callback = new SlowCallback();
+        final CallbackDispatcher<Object> dispatcher = newDispatcher(newPolicy(transitions).shed().build(), callback);
+        trip(dispatcher, callback);
+        dispatcher.notifyListeners("shed");
+        assertEquals(2, callback.calls.get());
+        Thread.sleep(RECOVERY_MILLIS * 2L);
+        dispatcher.notifyListeners("probe");
+        assertEquals(3, callback.calls.get());
+        assertEquals(Arrays.asList(State.HEALTHY + ">" + State.QUARANTINED, State.QUARANTINED + ">" + State.PROBING,
+                State.PROBING + ">" + State.HEALTHY), transitions.list());
+        dispatcher.notifyListeners("healthy");
+        assertEquals(4, callback.calls.get());
+        dispatcher.close();
+    }
+
+    @Test
+    public void slowProbeTripsAgain() throws Exception {
+        final Transitions transitions = new Transitions();
+        final SlowCallback callback = new SlowCallback();
+        final CallbackDispatcher<Object> dispatcher = newDispatcher(newPolicy(transitions).shed().build(), callback);
+        trip(dispatcher, callback);
+        Thread.sleep(RECOVERY_MILLIS * 2L);
+        callback.slow = true;
+        dispatcher.notifyListeners("probe");
+        assertEquals(3, callback.calls.get());
+        assertEquals(Arrays.asList(State.HEALTHY + ">" + State.QUARANTINED, State.QUARANTINED + ">" + State.PROBING,
+                State.PROBING + ">" + State.QUARANTINED), transitions.list());
+        dispatcher.notifyListeners("shed");
+        assertEquals(3, callback.calls.get());
+        dispatcher.close();
+    }
+
+    @Test
+    public void isolateDeliversOnTheIsolatedExecutor() throws Exception {
+        final Transitions transitions = new Transitions();
+        final SlowCallback callback = new SlowCallback();
+        final ListenerExecutor isolated = newExecutor();
+        final CallbackDispatcher<Object> dispatcher = newDispatcher(newPolicy(transitions).isolateOn(isolated)
+                .build(), callback);
+        dispatcher.notifyListeners("healthy");
+        assertSame(Thread.currentThread(), callback.lastThread);
+        trip(dispatcher, callback);
+        callback.received = new CountDownLatch(1);
+        dispatcher.notifyListeners("isolated");
+        assertTrue(callback.received.await(5L, TimeUnit.SECONDS));
+        assertEquals(4, callback.calls.get());
+        assertNotSame(Thread.currentThread(), callback.lastThread);
+        dispatcher.close();
+        isolated.destroy();
+    }
+
+    private static QuarantinePolicy.Builder newPolicy(Transitions transitions) {
+        return new QuarantinePolicy.Builder().setExecutionBudget(5L, TimeUnit.MILLISECONDS)
+                .setSlowInvocationThreshold(2).setRecoveryDelay(RECOVERY_MILLIS, TimeUnit.MILLISECONDS)
+                .setQuarantineListener(transitions);
+    }
+
+    // delivered on the notifying thread, so each notify is measured before it returns
+    private static CallbackDispatcher<Object> newDispatcher(QuarantinePolicy policy, Callback<Object> callback) {
+        final CallbackDispatcher<Object> dispatcher = new CallbackDispatcher.Builder<Object>()
+                .setQuarantinePolicy(policy).build();
+        dispatcher.addListener(callback);
+        return dispatcher;
+    }
+
+    private static void trip(CallbackDispatcher<Object> dispatcher, SlowCallback callback) {
+        callback.slow = true;
+        dispatcher.notifyListeners("slow");
+        dispatcher.notifyListeners("slow");
+        callback.slow = false;
+    }
+
+    private static ListenerExecutor newExecutor() {
+        final ListenerExecutor executor = new TaskQueueListenerExecutor(new LinkedBlockingQueue<Runnable>(),
+                ListenerExecutor.Mode.FOR_SINGLE_LISTENER, false);
+        executor.initialize();
+        return executor;
+    }
+
+    static class SlowCallback implements Callback<Object> {
+        final AtomicInteger calls = new AtomicInteger();
+        volatile boolean slow;
+        volatile Thread lastThread;
+        volatile CountDownLatch received = new CountDownLatch(0);
+
+        @Override
+        public void on(Object event) {
+            calls.incrementAndGet();
+            lastThread = Thread.currentThread();
+            if (slow) {
+                try {
+                    Thread.sleep(20L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            received.countDown();
+        }
+    }
+
+    static class Transitions implements QuarantineListener {
+        private final List<String> transitions = new ArrayList<>();
+
+        @Override
+        public synchronized void onQuarantineChanged(Callback<?> callback, State from, State to) {
+            transitions.add(from + ">" + to);
+        }
+
+        synchronized int size() {
+            return transitions.size();
+        }
+
+        synchronized List<String> list() {
+            return new ArrayList<>(transitions);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.Callback;
+import com.johnsoft.listeners.CallbackDispatcher;
+import com.johnsoft.listeners.executors.AbstractListenerExecutor;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class ReusableDeliveryAllocationTest {
+    private static final int LISTENERS = 50;
+    private static final int WARM_UP = 20000;
+    private static final int MEASURED = 20000;
+    // slack for the rare allocation of the JIT or the management bean itself
+    private static final long MAX_BYTES_PER_NOTIFY = 8L;
+
+    @Test
+    public void steadyStateNotifyAllocatesNothing() {
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // both run their tasks on this thread, so the whole path is measured
+        final ManualListenerExecutor callThread = new ManualListenerExecutor();
+        final ManualListenerExecutor executor = new ManualListenerExecutor();
+        final CallbackDispatcher<Object> dispatcher = new CallbackDispatcher.Builder<Object>()
+                .setSnapshotMode(true).setReusableDelivery(true).setCallThread(callThread)
+                .setDefaultExecutor(executor).build();
+        final AtomicLong delivered = new AtomicLong();
+        for (int i = 0; i < LISTENERS; ++i) {
+            dispatcher.addListener(new Callback<Object>() {
+                @Override
+                public void on(Object event) {
+                    delivered.incrementAndGet();
+                }
+            });
+        }
+        final Object event = new Object();
+        notify(dispatcher, callThread, executor, event, WARM_UP);
+
+        final long threadId = Thread.currentThread().getId();
+        final long before = threads.getThreadAllocatedBytes(threadId);
+        notify(dispatcher, callThread, executor, event, MEASURED);
+        final long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        dispatcher.close();
+
+        assertEquals((long) LISTENERS * (WARM_UP + MEASURED), delivered.get());
+        assertTrue("allocated " + allocated + " bytes for " + MEASURED + " notifies",
+                allocated <= MAX_BYTES_PER_NOTIFY * MEASURED);
+    }
+
+    private static void notify(CallbackDispatcher<Object> dispatcher, ManualListenerExecutor callThread,
+                               ManualListenerExecutor executor, Object event, int count) {
+        for (int i = 0; i < count; ++i) {
+            dispatcher.notifyListeners(event);
+            callThread.runAll();
+            executor.runAll();
+        }
+    }
+
+    /**
+     * Keeps the executed tasks in a preallocated array until {@link #runAll()}, and allocates nothing itself.
+     */
+    private static final class ManualListenerExecutor extends AbstractListenerExecutor {
+        private final Runnable[] tasks = new Runnable[LISTENERS];
+        private int count;
+
+        ManualListenerExecutor() {
+            super(Mode.FOR_SINGLE_DISPATCHER, false);
+            initialize();
+        }
+
+        @Override
+        protected boolean doInitialize() {
+            return true;
+        }
+
+        @Override
+        protected void doDestroy() {
+        }
+
+        @Override
+        protected CancelControler doExecute(Runnable runnable) {
+            if (count == tasks.length) {
+                return null;
+            }
+            tasks[count++] = runnable;
+            return COMPLETED;
+        }
+
+        void runAll() {
+            for (int i = 0; i < count; ++i) {
+                final Runnable task = tasks[i];
+                tasks[i] = null;
+                task.run();
+            }
+            count = 0;
+        }
+    }
+}
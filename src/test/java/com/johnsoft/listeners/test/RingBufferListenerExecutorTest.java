@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.ListenerExecutor.CancelControler;
+import com.johnsoft.listeners.executors.RingBufferListenerExecutor;
+import com.johnsoft.listeners.test.SerialLaneListenerExecutorTest.DiscardableTask;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class RingBufferListenerExecutorTest {
+    private static final int TASKS = 10000;
+
+    @Test
+    public void runsTasksInOrderWithEveryWaitStrategy() throws Exception {
+        for (RingBufferListenerExecutor.WaitStrategy waitStrategy : RingBufferListenerExecutor.WaitStrategy.values()) {
+            final RingBufferListenerExecutor executor = new RingBufferListenerExecutor(TASKS,
+                    waitStrategy, ListenerExecutor.Mode.FOR_SINGLE_LISTENER, false);
+            executor.initialize();
+            final List<Integer> ran = new ArrayList<>(TASKS);
+            final CountDownLatch done = new CountDownLatch(TASKS);
+            for (int i = 0; i < TASKS; ++i) {
+                final int task = i;
+                assertNotNull(executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        ran.add(task);
+                        done.countDown();
+                    }
+                }));
+            }
+            assertTrue(waitStrategy.name(), done.await(5L, TimeUnit.SECONDS));
+            executor.destroy();
+            for (int i = 0; i < TASKS; ++i) {
+                assertEquals(waitStrategy.name(), Integer.valueOf(i), ran.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void capacityIsRoundedUpToPowerOfTwo() {
+        final RingBufferListenerExecutor executor = new RingBufferListenerExecutor(100,
+                RingBufferListenerExecutor.WaitStrategy.BLOCKING, ListenerExecutor.Mode.FOR_SINGLE_LISTENER, false);
+        assertEquals(128, executor.getCapacity());
+    }
+
+    @Test
+    public void destroyDropsTheQueuedTasks() throws Exception {
+        final RingBufferListenerExecutor executor = new RingBufferListenerExecutor(4,
+                RingBufferListenerExecutor.WaitStrategy.BLOCKING, ListenerExecutor.Mode.FOR_SINGLE_LISTENER, false);
+        executor.initialize();
+        final CountDownLatch running = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                running.countDown();
+                try {
+                    new CountDownLatch(1).await(); // until destroy interrupts
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(running.await(5L, TimeUnit.SECONDS));
+        final DiscardableTask[] queued = new DiscardableTask[3];
+        for (int i = 0; i < queued.length; ++i) {
+            queued[i] = new DiscardableTask();
+            assertNotNull(executor.execute(queued[i]));
+        }
+        executor.destroy();
+        for (int i = 0; i < queued.length; ++i) {
+            assertEquals(0, queued[i].ran.get());
+            assertEquals(1, queued[i].discarded.get());
+        }
+    }
+
+    @Test
+    public void cancelOfAnEarlierRunKeepsTheTaskPublishedAgain() throws Exception {
+        final RingBufferListenerExecutor executor = new RingBufferListenerExecutor(1,
+                RingBufferListenerExecutor.WaitStrategy.BLOCKING, ListenerExecutor.Mode.FOR_SINGLE_LISTENER, false);
+        executor.initialize();
+        final DiscardableTask task = new DiscardableTask();
+        final CancelControler first = executor.execute(task);
+        awaitRuns(task, 1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch running = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(running.await(5L, TimeUnit.SECONDS));
+        // the same task waits in the same slot again
+        final CancelControler second = executor.execute(task);
+        first.cancel();
+        release.countDown();
+        awaitRuns(task, 2);
+        assertNotNull(second);
+        executor.destroy();
+    }
+
+    @Test
+    public void cancelSkipsTheWaitingTask() throws Exception {
+        final RingBufferListenerExecutor executor = new RingBufferListenerExecutor(2,
+                RingBufferListenerExecutor.WaitStrategy.BLOCKING, ListenerExecutor.Mode.FOR_SINGLE_LISTENER, false);
+        executor.initialize();
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch running = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(running.await(5L, TimeUnit.SECONDS));
+        final DiscardableTask cancelled = new DiscardableTask();
+        executor.execute(cancelled).cancel();
+        final DiscardableTask next = new DiscardableTask();
+        executor.execute(next);
+        release.countDown();
+        awaitRuns(next, 1);
+        assertEquals(0, cancelled.ran.get());
+        executor.destroy();
+    }
+
+    private static void awaitRuns(DiscardableTask task, int runs) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        while (task.ran.get() < runs && System.nanoTime() < deadline) {
+            Thread.sleep(1L);
+        }
+        assertEquals(runs, task.ran.get());
+    }
+}
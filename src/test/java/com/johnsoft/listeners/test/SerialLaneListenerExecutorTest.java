@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.Callback;
+import com.johnsoft.listeners.CallbackDispatcher;
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.executors.OverflowListener;
+import com.johnsoft.listeners.executors.OverflowPolicy;
+import com.johnsoft.listeners.executors.SerialLaneListenerExecutor;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class SerialLaneListenerExecutorTest {
+    @Test
+    public void lanesRunTheirTasksInOrder() throws Exception {
+        final SerialLaneListenerExecutor lanes = new SerialLaneListenerExecutor(Executors.newFixedThreadPool(4),
+                false);
+        lanes.initialize();
+        final int laneCount = 8;
+        final int taskCount = 1000;
+        final List<List<Integer>> ran = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(laneCount * taskCount);
+        final ListenerExecutor[] executors = new ListenerExecutor[laneCount];
+        for (int i = 0; i < laneCount; ++i) {
+            executors[i] = lanes.create(null);
+            ran.add(new ArrayList<Integer>());
+        }
+        for (int j = 0; j < taskCount; ++j) {
+            for (int i = 0; i < laneCount; ++i) {
+                final List<Integer> own = ran.get(i);
+                final int task = j;
+                executors[i].execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        // the lane runs one task at a time, possibly on different workers
+                        synchronized(own) {
+                            own.add(task);
+                        }
+                        done.countDown();
+                    }
+                });
+            }
+        }
+        assertTrue(done.await(5L, TimeUnit.SECONDS));
+        for (int i = 0; i < laneCount; ++i) {
+            synchronized(ran.get(i)) {
+                for (int j = 0; j < taskCount; ++j) {
+                    assertEquals(Integer.valueOf(j), ran.get(i).get(j));
+                }
+            }
+        }
+        lanes.destroy();
+    }
+
+    @Test
+    public void rejectedLaneDoesNotStrandLaterDeliveries() throws Exception {
+        final int callbackCount = 3;
+        // one worker and room for all lanes
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(callbackCount));
+        final SerialLaneListenerExecutor lanes = new SerialLaneListenerExecutor(pool, false);
+        lanes.initialize();
+        final CallbackDispatcher<Integer> dispatcher = new CallbackDispatcher.Builder<Integer>()
+                .setPerExecutorFactory(lanes).setReusableDelivery(true).build();
+        final CountingCallback[] callbacks = new CountingCallback[callbackCount];
+        for (int i = 0; i < callbackCount; ++i) {
+            callbacks[i] = new CountingCallback();
+            dispatcher.addListener(callbacks[i]);
+        }
+        final CountDownLatch release = new CountDownLatch(1);
+        lanes.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        lanes.execute(new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+        // while the worker is held the last lane does not fit into the pool, its delivery is dropped
+        dispatcher.notifyListeners(0);
+        release.countDown();
+        for (int i = 0; i < callbackCount - 1; ++i) {
+            assertTrue(callbacks[i].awaitCount(0));
+        }
+        final int events = 5;
+        for (int event = 1; event <= events; ++event) {
+            dispatcher.notifyListeners(event);
+            for (int i = 0; i < callbackCount; ++i) {
+                assertTrue("callback " + i + " stranded", callbacks[i].awaitCount(event));
+            }
+        }
+        assertEquals(events + 1, callbacks[0].count.get());
+        assertEquals(events + 1, callbacks[1].count.get());
+        assertEquals(events, callbacks[2].count.get());
+        dispatcher.close();
+        lanes.destroy();
+    }
+
+    @Test
+    public void rejectedTaskIsNotAccepted() throws Exception {
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(1));
+        final SerialLaneListenerExecutor lanes = new SerialLaneListenerExecutor(pool, false);
+        lanes.initialize();
+        final CountDownLatch release = new CountDownLatch(1);
+        final Runnable blocker = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        lanes.execute(blocker);
+        lanes.execute(blocker); // fills the pool queue
+        final ListenerExecutor lane = lanes.create(null);
+        final DiscardableTask task = new DiscardableTask();
+        assertNull(lane.execute(task));
+        release.countDown();
+        lanes.destroy();
+        assertEquals(0, task.ran.get());
+    }
+
+    @Test
+    public void destroyedLaneDiscardsWaitingTasks() throws Exception {
+        final SerialLaneListenerExecutor lanes = new SerialLaneListenerExecutor(Executors.newSingleThreadExecutor(),
+                false);
+        lanes.initialize();
+        final CountDownLatch release = new CountDownLatch(1);
+        lanes.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        final ListenerExecutor lane = lanes.create(null);
+        final DiscardableTask task = new DiscardableTask();
+        lane.execute(task);
+        lanes.release(null, lane);
+        release.countDown();
+        lanes.destroy();
+        assertEquals(1, task.discarded.get());
+        assertEquals(0, task.ran.get());
+    }
+
+    @Test
+    public void overflowPolicyAppliesToTheWorkers() throws Exception {
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(1));
+        final AtomicReference<ListenerExecutor> overflowed = new AtomicReference<>();
+        final SerialLaneListenerExecutor lanes = new SerialLaneListenerExecutor(pool, false,
+                OverflowPolicy.DROP_OLDEST, 0L, new OverflowListener() {
+                    @Override
+                    public void onOverflow(ListenerExecutor executor, OverflowPolicy policy, int droppedTasks) {
+                        overflowed.set(executor);
+                    }
+                });
+        lanes.initialize();
+        final CountDownLatch release = new CountDownLatch(1);
+        lanes.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        final DiscardableTask oldest = new DiscardableTask();
+        final DiscardableTask newest = new DiscardableTask();
+        lanes.create(null).execute(oldest);
+        // the first lane waits in the pool queue and is dropped for the second
+        lanes.create(null).execute(newest);
+        release.countDown();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        while (newest.ran.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1L);
+        }
+        lanes.destroy();
+        assertEquals(1, newest.ran.get());
+        assertEquals(0, oldest.ran.get());
+        assertEquals(1, oldest.discarded.get());
+        assertEquals(1L, lanes.getOverflowCount());
+        assertEquals(1L, lanes.getDroppedTaskCount());
+        assertSame(lanes, overflowed.get());
+    }
+
+    static class CountingCallback implements Callback<Integer> {
+        final AtomicInteger count = new AtomicInteger();
+        final AtomicInteger last = new AtomicInteger(-1);
+
+        @Override
+        public void on(Integer event) {
+            last.set(event);
+            count.incrementAndGet();
+        }
+
+        // waits until the event was delivered
+        boolean awaitCount(int event) throws InterruptedException {
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+            while (last.get() < event) {
+                if (System.nanoTime() > deadline) {
+                    return false;
+                }
+                Thread.sleep(1L);
+            }
+            return true;
+        }
+    }
+
+    static class DiscardableTask implements Runnable, ListenerExecutor.Discardable {
+        final AtomicInteger ran = new AtomicInteger();
+        final AtomicInteger discarded = new AtomicInteger();
+
+        @Override
+        public void run() {
+            ran.incrementAndGet();
+        }
+
+        @Override
+        public void discard() {
+            discarded.incrementAndGet();
+        }
+    }
+}
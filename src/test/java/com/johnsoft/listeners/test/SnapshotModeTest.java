@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.Callback;
+import com.johnsoft.listeners.CallbackDispatcher;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class SnapshotModeTest {
+    @Test
+    public void versionChangesOnlyWhenListenersChange() {
+        final CallbackDispatcher<String> dispatcher = new CallbackDispatcher.Builder<String>()
+                .setSnapshotMode(true).build();
+        final Callback<String> callback = new RecordingCallback();
+        final long initial = dispatcher.getListenersVersion();
+        assertTrue(dispatcher.addListener(callback));
+        final long added = dispatcher.getListenersVersion();
+        assertTrue(added > initial);
+        assertFalse(dispatcher.addListener(callback));
+        assertEquals(added, dispatcher.getListenersVersion());
+        assertTrue(dispatcher.removeListener(callback));
+        assertTrue(dispatcher.getListenersVersion() > added);
+        dispatcher.close();
+    }
+
+    @Test
+    public void notifyUsesTheSnapshotTakenBeforeCallbacksChangeListeners() {
+        final CallbackDispatcher<String> dispatcher = new CallbackDispatcher.Builder<String>()
+                .setSnapshotMode(true).build();
+        final RecordingCallback late = new RecordingCallback();
+        final RecordingCallback second = new RecordingCallback();
+        dispatcher.addListener(new Callback<String>() {
+            @Override
+            public void on(String event) {
+                dispatcher.removeListener(second);
+                dispatcher.addListener(late);
+            }
+        });
+        dispatcher.addListener(second);
+        dispatcher.notifyListeners("first");
+        dispatcher.notifyListeners("next");
+        assertEquals(1, second.events.size());
+        assertEquals("first", second.events.get(0));
+        assertEquals(1, late.events.size());
+        assertEquals("next", late.events.get(0));
+        dispatcher.close();
+    }
+
+    static class RecordingCallback implements Callback<String> {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public synchronized void on(String event) {
+            events.add(event);
+        }
+    }
+}
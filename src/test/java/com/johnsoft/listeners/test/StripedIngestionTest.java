@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.Callback;
+import com.johnsoft.listeners.CallbackDispatcher;
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.executors.TaskQueueListenerExecutor;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class StripedIngestionTest {
+    private static final int PRODUCERS = 8;
+
+    @Test
+    public void eachProducerIsDeliveredInOrderWithoutLoss() throws Exception {
+        final int events = 20000;
+        final ListenerExecutor callThread = newCallThread();
+        // fewer stripes than producers, so producers also share a stripe
+        final CallbackDispatcher<int[]> dispatcher = new CallbackDispatcher.Builder<int[]>()
+                .setCallThread(callThread).setIngestionStripes(4).build();
+        final OrderCallback callback = new OrderCallback();
+        dispatcher.addListener(callback);
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] producers = new Thread[PRODUCERS];
+        for (int p = 0; p < PRODUCERS; ++p) {
+            final int producer = p;
+            producers[p] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < events; ++i) {
+                        dispatcher.notifyListeners(new int[] { producer, i });
+                        if ((i & 0xFF) == 0) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            };
+            producers[p].start();
+        }
+        start.countDown();
+        for (int p = 0; p < PRODUCERS; ++p) {
+            producers[p].join();
+        }
+        assertTrue(callback.awaitDelivered(PRODUCERS * events, 10000L));
+        assertEquals(0, callback.outOfOrder());
+        for (int p = 0; p < PRODUCERS; ++p) {
+            assertEquals(events, callback.next(p));
+        }
+        dispatcher.close();
+        callThread.destroy();
+    }
+
+    /**
+     * Each round ends with the last events of all producers, so an event queued while the call thread
+     * finishes its drain stays queued unless the drain checks the stripes again.
+     */
+    @Test
+    public void eventRacingTheEndOfTheDrainIsDelivered() throws Exception {
+        final int rounds = 2000;
+        final ListenerExecutor callThread = newCallThread();
+        final CallbackDispatcher<int[]> dispatcher = new CallbackDispatcher.Builder<int[]>()
+                .setCallThread(callThread).setIngestionStripes(PRODUCERS).build();
+        final OrderCallback callback = new OrderCallback();
+        dispatcher.addListener(callback);
+        final CyclicBarrier barrier = new CyclicBarrier(PRODUCERS + 1);
+        for (int p = 0; p < PRODUCERS; ++p) {
+            final int producer = p;
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int round = 0; round < rounds; ++round) {
+                            barrier.await();
+                            dispatcher.notifyListeners(new int[] { producer, round });
+                        }
+                    } catch (Exception e) {
+                        // the test failed and broke the barrier
+                    }
+                }
+            }.start();
+        }
+        try {
+            for (int round = 0; round < rounds; ++round) {
+                barrier.await();
+                assertTrue("lost an event in round " + round,
+                        callback.awaitDelivered((round + 1) * PRODUCERS, 2000L));
+            }
+        } finally {
+            barrier.reset();
+        }
+        assertEquals(0, callback.outOfOrder());
+        dispatcher.close();
+        callThread.destroy();
+    }
+
+    private static ListenerExecutor newCallThread() {
+        final ListenerExecutor callThread = new TaskQueueListenerExecutor(new LinkedBlockingQueue<Runnable>(),
+                ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER, false);
+        callThread.initialize();
+        return callThread;
+    }
+
+    // events are int[] { producer, sequence }
+    static class OrderCallback implements Callback<int[]> {
+        private final int[] next = new int[PRODUCERS];
+        private int outOfOrder;
+        private int delivered;
+
+        @Override
+        public synchronized void on(int[] event) {
+            if (event[1] != next[event[0]]) {
+                ++outOfOrder;
+            }
+            next[event[0]] = event[1] + 1;
+            ++delivered;
+            notifyAll();
+        }
+
+        synchronized boolean awaitDelivered(int count, long timeoutMillis) throws InterruptedException {
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            long remaining;
+            while (delivered < count && (remaining = deadline - System.nanoTime()) > 0L) {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            return delivered >= count;
+        }
+
+        synchronized int outOfOrder() {
+            return outOfOrder;
+        }
+
+        synchronized int next(int producer) {
+            return next[producer];
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.executors.OverflowPolicy;
+import com.johnsoft.listeners.executors.TaskQueueListenerExecutor;
+import com.johnsoft.listeners.executors.ThreadPoolListenerExecutor;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class ThreadPoolOverflowTest {
+    @Test
+    public void blockWaitsForRoomInThePoolQueue() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final ThreadPoolListenerExecutor executor = new ThreadPoolListenerExecutor(newSaturatedPool(release),
+                ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER, false, OverflowPolicy.BLOCK, 5000L, null);
+        executor.initialize();
+        new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(50L);
+                } catch (InterruptedException ignored) {
+                    // release anyway
+                }
+                release.countDown();
+            }
+        }.start();
+        final CountDownLatch ran = new CountDownLatch(1);
+        assertNotNull(executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                ran.countDown();
+            }
+        }));
+        assertTrue(ran.await(5L, TimeUnit.SECONDS));
+        assertEquals(0L, executor.getDroppedTaskCount());
+        executor.destroy();
+    }
+
+    @Test
+    public void blockDropsTheNewTaskAfterTheTimeout() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final ThreadPoolListenerExecutor executor = new ThreadPoolListenerExecutor(newSaturatedPool(release),
+                ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER, false, OverflowPolicy.BLOCK, 20L, null);
+        executor.initialize();
+        assertNull(executor.execute(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }));
+        assertEquals(1L, executor.getDroppedTaskCount());
+        release.countDown();
+        executor.destroy();
+    }
+
+    @Test
+    public void rejectionWithoutPolicyIsNotCountedAsOverflow() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final ThreadPoolListenerExecutor executor = new ThreadPoolListenerExecutor(newSaturatedPool(release),
+                ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER, false);
+        executor.initialize();
+        assertNull(executor.execute(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }));
+        assertEquals(0L, executor.getOverflowCount());
+        assertEquals(0L, executor.getDroppedTaskCount());
+        release.countDown();
+        executor.destroy();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void conflateIsRefusedOnSharedPools() {
+        new ThreadPoolListenerExecutor(newSaturatedPool(new CountDownLatch(0)),
+                ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER, false, OverflowPolicy.CONFLATE, 0L, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void conflateIsRefusedOnSharedQueues() {
+        new TaskQueueListenerExecutor(new LinkedBlockingQueue<Runnable>(1),
+                ListenerExecutor.Mode.FOR_MULTI_SHARED, false, OverflowPolicy.CONFLATE, 0L, null);
+    }
+
+    @Test
+    public void conflateIsAllowedForASingleListener() {
+        new TaskQueueListenerExecutor(new LinkedBlockingQueue<Runnable>(1),
+                ListenerExecutor.Mode.FOR_SINGLE_LISTENER, false, OverflowPolicy.CONFLATE, 0L, null);
+    }
+
+    // one worker held on the latch and one task waiting in a queue of one
+    private static ThreadPoolExecutor newSaturatedPool(final CountDownLatch release) {
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(1));
+        final Runnable waiting = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        pool.execute(waiting);
+        pool.execute(waiting);
+        return pool;
+    }
+}
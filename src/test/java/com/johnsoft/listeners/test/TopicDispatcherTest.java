@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.Callback;
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.TopicDispatcher;
+import com.johnsoft.listeners.executors.OverflowPolicy;
+import com.johnsoft.listeners.executors.ThreadPoolListenerExecutor;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class TopicDispatcherTest {
+    @Test
+    public void callbackMatchedSeveralTimesIsCalledOnce() {
+        final TopicDispatcher<String> dispatcher = new TopicDispatcher<>();
+        final CountingCallback both = new CountingCallback();
+        final CountingCallback pattern = new CountingCallback();
+        dispatcher.subscribe("a.b", both);
+        dispatcher.subscribePattern("a.*", both);
+        dispatcher.subscribePattern("a.#", both);
+        dispatcher.subscribePattern("#", pattern);
+        dispatcher.subscribePattern("*.b", pattern);
+        assertEquals(2, dispatcher.publish("a.b", "event"));
+        assertEquals(1, both.count.get());
+        assertEquals(1, pattern.count.get());
+        // only the patterns match here
+        assertEquals(2, dispatcher.publish("a.c", "event"));
+        assertEquals(2, both.count.get());
+        assertEquals(2, pattern.count.get());
+        dispatcher.close();
+    }
+
+    @Test
+    public void subscribeRacingCloseLeavesNothing() throws Exception {
+        for (int round = 0; round < 200; ++round) {
+            final TopicDispatcher<String> dispatcher = new TopicDispatcher<>();
+            final CountDownLatch start = new CountDownLatch(1);
+            final Thread subscriber = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < 100; ++i) {
+                        dispatcher.subscribe("topic." + i, new CountingCallback());
+                        dispatcher.subscribePattern("pattern." + i + ".#", new CountingCallback());
+                    }
+                }
+            };
+            subscriber.start();
+            start.countDown();
+            dispatcher.close();
+            subscriber.join();
+            assertEquals(0, dispatcher.getTopicCount());
+            assertEquals(0, dispatcher.getPatternCount());
+            assertEquals(0, dispatcher.publish("pattern.1.x", "event"));
+            assertFalse(dispatcher.subscribe("topic.0", new CountingCallback()));
+        }
+    }
+
+    @Test
+    public void eventDroppedByTheExecutorIsReported() throws Exception {
+        final ListenerExecutor executor = new ThreadPoolListenerExecutor(new ThreadPoolExecutor(1, 1, 0L,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(1)),
+                ListenerExecutor.Mode.FOR_SINGLE_DISPATCHER, false, OverflowPolicy.DROP_OLDEST, 0L, null);
+        executor.initialize();
+        final List<String> dropped = new ArrayList<>();
+        final CountDownLatch release = new CountDownLatch(1);
+        try (TopicDispatcher<String> dispatcher = new TopicDispatcher<String>(
+                new TopicDispatcher.Builder<String>().setExecutor(executor)) {
+            @Override
+            protected void onEventDropped(String topic, String event) {
+                synchronized(dropped) {
+                    dropped.add(topic + "=" + event);
+                }
+            }
+        }) {
+            final CountingCallback callback = new CountingCallback() {
+                @Override
+                public void on(String event) {
+                    super.on(event);
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+            dispatcher.subscribe("t", callback);
+            assertEquals(1, dispatcher.publish("t", "running"));
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+            while (callback.count.get() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1L);
+            }
+            assertEquals(1, dispatcher.publish("t", "waiting"));
+            // the waiting delivery is dropped from the pool queue for the newest
+            assertEquals(1, dispatcher.publish("t", "newest"));
+            synchronized(dropped) {
+                assertEquals(Arrays.asList("t=waiting"), dropped);
+            }
+            release.countDown();
+        }
+        assertTrue(executor.isDestroyed());
+    }
+
+    static class CountingCallback implements Callback<String> {
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public void on(String event) {
+            count.incrementAndGet();
+        }
+    }
+}
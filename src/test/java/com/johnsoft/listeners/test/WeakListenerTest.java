@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package com.johnsoft.listeners.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.johnsoft.listeners.Callback;
+import com.johnsoft.listeners.CallbackDispatcher;
+import com.johnsoft.listeners.Listener;
+import com.johnsoft.listeners.ListenerExecutor;
+import com.johnsoft.listeners.ListenerExecutorFactory;
+import com.johnsoft.listeners.ListenerVisitor;
+import com.johnsoft.listeners.executors.TaskQueueListenerExecutor;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2026-10-16
+ */
+public class WeakListenerTest {
+    @Test
+    public void collectedListenerIsPurgedAndItsExecutorReleased() throws Exception {
+        final RecordingFactory factory = new RecordingFactory();
+        final CallbackDispatcher<Object> dispatcher = new CallbackDispatcher.Builder<Object>()
+                .setWeakListeners(true).setPerExecutorFactory(factory).build();
+        addUnreachableCallback(dispatcher);
+        assertEquals(1, factory.created.get());
+        int purged = 0;
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10L);
+        while (purged == 0 && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10L);
+            purged = dispatcher.purgeExpiredListeners();
+        }
+        assertEquals(1, purged);
+        assertEquals(0, countListeners(dispatcher));
+        assertEquals(1, factory.released.get());
+        assertNull(factory.releasedListener);
+        assertSame(factory.executor, factory.releasedExecutor);
+        dispatcher.close();
+        assertEquals(1, factory.released.get());
+    }
+
+    @Test
+    public void reachableListenerIsKept() throws Exception {
+        final RecordingFactory factory = new RecordingFactory();
+        final CallbackDispatcher<Object> dispatcher = new CallbackDispatcher.Builder<Object>()
+                .setWeakListeners(true).setPerExecutorFactory(factory).build();
+        final Callback<Object> callback = new Callback<Object>() {
+            @Override
+            public void on(Object event) {
+            }
+        };
+        dispatcher.addListener(callback);
+        System.gc();
+        Thread.sleep(10L);
+        assertEquals(0, dispatcher.purgeExpiredListeners());
+        assertTrue(dispatcher.containsListener(callback));
+        assertEquals(0, factory.released.get());
+        dispatcher.close();
+    }
+
+    // no reference to the callback is left on the stack of the test
+    private static void addUnreachableCallback(CallbackDispatcher<Object> dispatcher) {
+        dispatcher.addListener(new Callback<Object>() {
+            @Override
+            public void on(Object event) {
+            }
+        });
+    }
+
+    private static int countListeners(CallbackDispatcher<Object> dispatcher) {
+        final AtomicInteger count = new AtomicInteger();
+        dispatcher.visitListeners(new ListenerVisitor() {
+            @Override
+            public void visit(Listener listener) {
+                count.incrementAndGet();
+            }
+        });
+        return count.get();
+    }
+
+    static class RecordingFactory implements ListenerExecutorFactory {
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger released = new AtomicInteger();
+        volatile ListenerExecutor executor;
+        volatile Listener releasedListener;
+        volatile ListenerExecutor releasedExecutor;
+
+        @Override
+        public ListenerExecutor create(Listener listener) {
+            created.incrementAndGet();
+            executor = new TaskQueueListenerExecutor(new LinkedBlockingQueue<Runnable>(),
+                    ListenerExecutor.Mode.FOR_SINGLE_LISTENER, false);
+            return executor;
+        }
+
+        @Override
+        public void release(Listener listener, ListenerExecutor executor) {
+            released.incrementAndGet();
+            releasedListener = listener;
+            releasedExecutor = executor;
+            executor.destroy();
+        }
+    }
+}